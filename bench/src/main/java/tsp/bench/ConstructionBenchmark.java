@@ -0,0 +1,74 @@
+package tsp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.evaluation.Evaluation;
+import tsp.evaluation.KdTree;
+import tsp.projects.InvalidProjectException;
+import tsp.projects.demo.greedy.Greedy;
+
+/**
+ * @author Alexandre Blansché
+ * Construction gloutonne : une itération de Greedy (Greedy.gluttonDeterministicPath puis évaluation),
+ * et la construction du plus proche voisin seule, sur l'arbre k-d
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class ConstructionBenchmark
+{
+	@State (Scope.Thread)
+	public static class Builders
+	{
+		Greedy greedy;
+		KdTree.Search search;
+		int [] path;
+		int start;
+
+		@Setup (Level.Trial)
+		public void setup (ProblemState state) throws InvalidProjectException
+		{
+			this.greedy = new Greedy (new Evaluation (state.problem));
+			this.greedy.initialization ();
+			this.search = state.problem.getKdTree ().newSearch ();
+			this.path = new int [state.problem.getLength ()];
+		}
+	}
+
+	@Benchmark
+	public void greedy (Builders builders)
+	{
+		builders.greedy.loop ();
+	}
+
+	@Benchmark
+	public int [] nearestNeighbour (Builders builders)
+	{
+		int [] path = builders.path;
+		KdTree.Search search = builders.search;
+		search.reset ();
+		builders.start = (builders.start + 1) % path.length;
+		path [0] = builders.start;
+		search.remove (path [0]);
+		for (int i = 1; i < path.length; i++)
+		{
+			path [i] = search.nearest (path [i - 1]);
+			search.remove (path [i]);
+		}
+		return path;
+	}
+}
@@ -0,0 +1,84 @@
+package tsp.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.projects.competitor.AlexandreUntereinerKameliaSlimani.Crossover;
+import tsp.projects.competitor.AlexandreUntereinerKameliaSlimani.Eax;
+import tsp.solver.LinKernighan;
+import tsp.solver.TwoOpt;
+
+/**
+ * @author Alexandre Blansché
+ * Croisements de BakiTKO entre deux optima locaux 2-opt : EAX, croisement en un point,
+ * et construction complète d'un enfant comme BakiTKO (EAX puis Lin-Kernighan, sans mutation)
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class CrossoverBenchmark
+{
+	private static final int EAX_CHILDREN = 10;
+
+	@State (Scope.Thread)
+	public static class Parents
+	{
+		Eax eax;
+		Crossover crossover;
+		LinKernighan linKernighan;
+		Random random;
+		int [] parent1;
+		int [] parent2;
+		int [] child;
+
+		@Setup (Level.Trial)
+		public void setup (ProblemState state)
+		{
+			int length = state.problem.getLength ();
+			this.eax = new Eax (state.problem);
+			this.crossover = new Crossover (length);
+			this.linKernighan = new LinKernighan (state.problem, LinKernighan.DEFAULT_NEIGHBOURS, new Random (0));
+			this.random = new Random (0);
+			TwoOpt twoOpt = new TwoOpt (state.problem);
+			this.parent1 = state.nearestNeighbourPath.clone ();
+			twoOpt.optimize (this.parent1);
+			this.parent2 = ProblemState.nearestNeighbour (state.problem, length / 2);
+			twoOpt.optimize (this.parent2);
+			this.child = new int [length];
+		}
+	}
+
+	@Benchmark
+	public double eax (Parents parents)
+	{
+		return parents.eax.cross (parents.parent1, parents.parent2, parents.child, CrossoverBenchmark.EAX_CHILDREN, parents.random);
+	}
+
+	@Benchmark
+	public int [] onePoint (Parents parents)
+	{
+		parents.crossover.cross (Crossover.Type.ONE_POINT, parents.parent1, parents.parent2, parents.child, parents.random);
+		return parents.child;
+	}
+
+	@Benchmark
+	public double child (Parents parents)
+	{
+		double delta = parents.eax.cross (parents.parent1, parents.parent2, parents.child, CrossoverBenchmark.EAX_CHILDREN, parents.random);
+		return delta - parents.linKernighan.optimize (parents.child);
+	}
+}
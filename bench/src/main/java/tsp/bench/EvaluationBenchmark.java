@@ -0,0 +1,57 @@
+package tsp.bench;
+
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.evaluation.Evaluation;
+import tsp.evaluation.Path;
+
+/**
+ * @author Alexandre Blansché
+ * Évaluation complète d'un chemin (Evaluation.evaluate : calcul, validation si amélioration, publication)
+ * et évaluation rapide (Evaluation.quickEvaluate)
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class EvaluationBenchmark
+{
+	@State (Scope.Thread)
+	public static class Paths
+	{
+		Evaluation evaluation;
+		Path path;
+
+		@Setup (Level.Trial)
+		public void setup (ProblemState state)
+		{
+			this.evaluation = new Evaluation (state.problem);
+			this.path = new Path (state.randomPath.clone ());
+		}
+	}
+
+	@Benchmark
+	public double evaluate (Paths paths)
+	{
+		return paths.evaluation.evaluate (paths.path);
+	}
+
+	@Benchmark
+	public double quickEvaluate (Paths paths)
+	{
+		return paths.evaluation.quickEvaluate (paths.path);
+	}
+}
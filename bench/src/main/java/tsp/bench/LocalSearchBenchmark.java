@@ -0,0 +1,77 @@
+package tsp.bench;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+
+import tsp.solver.LinKernighan;
+import tsp.solver.OrOpt;
+import tsp.solver.TwoOpt;
+
+/**
+ * @author Alexandre Blansché
+ * Recherches locales jusqu'à l'optimum local, depuis le chemin du plus proche voisin
+ * (2-opt est le moteur de BakiTKO.two_opt) ; la copie du chemin de départ fait partie de la mesure
+ */
+@BenchmarkMode (Mode.Throughput)
+@OutputTimeUnit (TimeUnit.SECONDS)
+@Warmup (iterations = 3, time = 2)
+@Measurement (iterations = 5, time = 2)
+@Fork (value = 1, jvmArgsAppend = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC"})
+public class LocalSearchBenchmark
+{
+	@State (Scope.Thread)
+	public static class Engines
+	{
+		TwoOpt twoOpt;
+		OrOpt orOpt;
+		LinKernighan linKernighan;
+		int [] start;
+		int [] path;
+
+		@Setup (Level.Trial)
+		public void setup (ProblemState state)
+		{
+			this.twoOpt = new TwoOpt (state.problem);
+			this.orOpt = new OrOpt (state.problem);
+			this.linKernighan = new LinKernighan (state.problem, LinKernighan.DEFAULT_NEIGHBOURS, new Random (0));
+			this.start = state.nearestNeighbourPath;
+			this.path = new int [this.start.length];
+		}
+
+		int [] reset ()
+		{
+			System.arraycopy (this.start, 0, this.path, 0, this.path.length);
+			return this.path;
+		}
+	}
+
+	@Benchmark
+	public double twoOpt (Engines engines)
+	{
+		return engines.twoOpt.optimize (engines.reset ());
+	}
+
+	@Benchmark
+	public double orOpt (Engines engines)
+	{
+		return engines.orOpt.optimize (engines.reset ());
+	}
+
+	@Benchmark
+	public double linKernighan (Engines engines)
+	{
+		return engines.linKernighan.optimize (engines.reset ());
+	}
+}
@@ -0,0 +1,72 @@
+package tsp.bench;
+
+import java.util.Random;
+
+import org.openjdk.jmh.annotations.Level;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+
+import tsp.evaluation.BenchmarkProblems;
+import tsp.evaluation.KdTree;
+import tsp.evaluation.Problem;
+
+/**
+ * @author Alexandre Blansché
+ * Problème d'un benchmark (partagé par les threads), avec deux chemins de départ reproductibles :
+ * un chemin aléatoire et un chemin du plus proche voisin
+ */
+@State (Scope.Benchmark)
+public class ProblemState
+{
+	@Param ({"bier127", "gr666", "pr8192", "random-1000", "random-10000"})
+	public String name;
+
+	Problem problem;
+	int [] randomPath;
+	int [] nearestNeighbourPath;
+
+	@Setup (Level.Trial)
+	public void setup ()
+	{
+		this.problem = BenchmarkProblems.load (this.name);
+		// Listes de voisins et arbre k-d construits ici, hors des mesures
+		this.problem.getKdTree ();
+		this.problem.getNeighbourLists (10);
+		int length = this.problem.getLength ();
+		// Mélange à graine fixe (Path.getRandomPath n'est pas reproductible)
+		Random random = new Random (length);
+		this.randomPath = new int [length];
+		for (int i = 0; i < length; i++)
+			this.randomPath [i] = i;
+		for (int i = length - 1; i > 0; i--)
+		{
+			int j = random.nextInt (i + 1);
+			int tmp = this.randomPath [i];
+			this.randomPath [i] = this.randomPath [j];
+			this.randomPath [j] = tmp;
+		}
+		this.nearestNeighbourPath = ProblemState.nearestNeighbour (this.problem, 0);
+	}
+
+	/**
+	 * @param problem Le problème
+	 * @param start Première "ville"
+	 * @return Chemin du plus proche voisin
+	 */
+	static int [] nearestNeighbour (Problem problem, int start)
+	{
+		int length = problem.getLength ();
+		KdTree.Search search = problem.getKdTree ().newSearch ();
+		int [] path = new int [length];
+		path [0] = start;
+		search.remove (start);
+		for (int i = 1; i < length; i++)
+		{
+			path [i] = search.nearest (path [i - 1]);
+			search.remove (path [i]);
+		}
+		return path;
+	}
+}
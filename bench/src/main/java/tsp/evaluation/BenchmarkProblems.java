@@ -0,0 +1,68 @@
+package tsp.evaluation;
+
+import java.io.BufferedWriter;
+import java.io.File;
+import java.io.IOException;
+import java.io.UncheckedIOException;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.util.List;
+import java.util.Random;
+
+/**
+ * @author Alexandre Blansché
+ * Problèmes des benchmarks : fichiers du répertoire data/ (par leur nom), ou problèmes synthétiques
+ * "random-n" (n "villes" tirées uniformément dans un carré, graine fixe) écrits dans un fichier temporaire,
+ * lu sans passer par le fichier binaire du répertoire de cache
+ * Placée dans le paquetage tsp.evaluation pour lire un fichier hors de data/
+ */
+public final class BenchmarkProblems
+{
+	private static final String RANDOM = "random-";
+	private static final long SEED = 20240601L;
+
+	private BenchmarkProblems ()
+	{
+	}
+
+	/**
+	 * @param name Nom d'un problème de data/, ou "random-n"
+	 * @return Le problème
+	 * @throws IllegalArgumentException Si le problème n'existe pas
+	 */
+	public static Problem load (String name)
+	{
+		if (name.startsWith (BenchmarkProblems.RANDOM))
+			return BenchmarkProblems.random (Integer.parseInt (name.substring (BenchmarkProblems.RANDOM.length ())));
+		List <ProblemHandle> handles = Problem.getHandles (ProblemHandle.named (name));
+		if (handles.isEmpty ())
+			throw new IllegalArgumentException ("Problème introuvable : " + name + " (lancer depuis la racine du projet)");
+		return handles.get (0).get ();
+	}
+
+	private static Problem random (int length)
+	{
+		try
+		{
+			File directory = Files.createTempDirectory ("tsp-bench").toFile ();
+			File file = new File (directory, BenchmarkProblems.RANDOM + length + ".tsp");
+			Random random = new Random (BenchmarkProblems.SEED + length);
+			try (BufferedWriter out = Files.newBufferedWriter (file.toPath (), StandardCharsets.US_ASCII))
+			{
+				for (int i = 0; i < length; i++)
+				{
+					out.write (random.nextInt (10 * length) + " " + random.nextInt (10 * length));
+					out.newLine ();
+				}
+			}
+			Problem problem = new Problem (file.getAbsolutePath (), false);
+			file.delete ();
+			directory.delete ();
+			return problem;
+		}
+		catch (IOException e)
+		{
+			throw new UncheckedIOException (e);
+		}
+	}
+}
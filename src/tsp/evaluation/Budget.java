@@ -0,0 +1,189 @@
+package tsp.evaluation;
+
+import java.lang.management.ManagementFactory;
+import java.lang.management.ThreadMXBean;
+import java.util.IdentityHashMap;
+import java.util.Map;
+
+/**
+ * @author Alexandre Blansché
+ * Budget de temps d'une exécution, mesuré en temps processeur (ThreadMXBean) sur les threads du groupe
+ * de l'exécution, c'est-à-dire le thread du projet et les threads qu'il crée (les threads partagés,
+ * comme ceux du pool commun des flux parallèles, ne sont pas comptés)
+ * Chaque exécution dispose de processeurs réservés : le temps décompté est le plus grand du temps
+ * du thread le plus chargé et du temps total divisé par le nombre de ces processeurs, c'est-à-dire
+ * le temps qu'aurait mis l'exécution seule sur ses processeurs
+ * Un solveur parallèle dispose ainsi du même temps qu'un solveur séquentiel, et peut y occuper tous
+ * ses processeurs (mais pas davantage : le temps total est borné par la limite fois leur nombre) ;
+ * des exécutions simultanées ne se prennent pas de temps l'une à l'autre
+ * Un thread de surveillance échantillonne la consommation toutes les Budget.PERIOD millisecondes :
+ * expired () et remaining () se contentent de lire le dernier échantillon et peuvent être appelés
+ * dans les boucles internes des solveurs
+ * Une limite en temps réel borne aussi l'exécution (un thread bloqué ne consomme rien) ;
+ * si la machine virtuelle ne mesure pas le temps processeur, seul le temps réel compte
+ */
+public final class Budget
+{
+	/**
+	 * Budget qui n'expire jamais (évaluation hors du programme d'évaluation)
+	 */
+	public static final Budget UNLIMITED = new Budget (Long.MAX_VALUE, Long.MAX_VALUE, 1);
+	private static final long PERIOD = 10;
+	private static final ThreadMXBean BEAN = ManagementFactory.getThreadMXBean ();
+	private static final boolean CPU_TIME = Budget.enableCpuTime ();
+
+	private final long limit;
+	private final long wallClockLimit;
+	private final int processors;
+	private volatile long consumed;
+	private volatile boolean expired;
+	private Thread watchdog;
+
+	/**
+	 * Constructeur
+	 * @param seconds Temps accordé, en secondes
+	 * @param wallClockSeconds Temps réel maximal, en secondes
+	 * @param processors Nombre de processeurs réservés à l'exécution (au moins 1)
+	 */
+	public Budget (double seconds, double wallClockSeconds, int processors)
+	{
+		this ((long) (seconds * 1e9), (long) (wallClockSeconds * 1e9), processors);
+	}
+
+	private Budget (long limit, long wallClockLimit, int processors)
+	{
+		this.limit = limit;
+		this.wallClockLimit = wallClockLimit;
+		this.processors = Math.max (1, processors);
+	}
+
+	private static boolean enableCpuTime ()
+	{
+		try
+		{
+			if (!Budget.BEAN.isThreadCpuTimeSupported ())
+				return false;
+			if (!Budget.BEAN.isThreadCpuTimeEnabled ())
+				Budget.BEAN.setThreadCpuTimeEnabled (true);
+			return true;
+		}
+		catch (UnsupportedOperationException | SecurityException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * @return Indique si le budget est épuisé
+	 */
+	public boolean expired ()
+	{
+		return this.expired;
+	}
+
+	/**
+	 * @return Temps restant, en nanosecondes (0 si le budget est épuisé)
+	 */
+	public long remaining ()
+	{
+		return this.expired ? 0 : Math.max (0, this.limit - this.consumed);
+	}
+
+	/**
+	 * @return Nombre de processeurs réservés à l'exécution (1 pour Budget.UNLIMITED) : taille à donner
+	 * aux groupes de threads d'un solveur parallèle
+	 */
+	public int getProcessors ()
+	{
+		return this.processors;
+	}
+
+	/**
+	 * @return Temps décompté (voir la description de la classe), en nanosecondes
+	 */
+	public long getConsumed ()
+	{
+		return this.consumed;
+	}
+
+	/**
+	 * @return Temps accordé, en nanosecondes
+	 */
+	public long getLimit ()
+	{
+		return this.limit;
+	}
+
+	/**
+	 * Démarre la surveillance (réservé au programme d'évaluation)
+	 * @param group Groupe des threads de l'exécution
+	 * @param onExpiry Action lancée par le thread de surveillance quand le budget est épuisé
+	 * @throws IllegalStateException Si la surveillance a déjà été démarrée
+	 */
+	public synchronized void start (ThreadGroup group, Runnable onExpiry)
+	{
+		if (this.watchdog != null || this == Budget.UNLIMITED)
+			throw new IllegalStateException ("Budget déjà utilisé");
+		long start = System.nanoTime ();
+		this.watchdog = new Thread (() -> this.watch (group, start, onExpiry), "budget-" + group.getName ());
+		this.watchdog.setDaemon (true);
+		this.watchdog.start ();
+	}
+
+	/**
+	 * Arrête la surveillance (fin de l'exécution avant épuisement du budget)
+	 */
+	public synchronized void stop ()
+	{
+		if (this.watchdog != null)
+			this.watchdog.interrupt ();
+	}
+
+	private void watch (ThreadGroup group, long start, Runnable onExpiry)
+	{
+		// Dernier temps connu de chaque thread : le temps des threads terminés reste compté
+		Map <Thread, Long> times = new IdentityHashMap <Thread, Long> ();
+		Thread [] threads = new Thread [16];
+		while (!Thread.currentThread ().isInterrupted ())
+		{
+			long wallClock = System.nanoTime () - start;
+			long consumed = wallClock;
+			if (Budget.CPU_TIME)
+			{
+				int count;
+				while ((count = group.enumerate (threads, true)) == threads.length)
+					threads = new Thread [2 * threads.length];
+				for (int i = 0; i < count; i++)
+				{
+					long time = Budget.BEAN.getThreadCpuTime (threads [i].getId ());
+					if (time >= 0)
+						times.put (threads [i], time);
+					threads [i] = null;
+				}
+				long total = 0;
+				long busiest = 0;
+				for (long time: times.values ())
+				{
+					total += time;
+					busiest = Math.max (busiest, time);
+				}
+				consumed = Math.max (busiest, total / this.processors);
+			}
+			this.consumed = consumed;
+			if (consumed >= this.limit || wallClock >= this.wallClockLimit)
+			{
+				this.expired = true;
+				onExpiry.run ();
+				return;
+			}
+			try
+			{
+				Thread.sleep (Budget.PERIOD);
+			}
+			catch (InterruptedException e)
+			{
+				return;
+			}
+		}
+	}
+}
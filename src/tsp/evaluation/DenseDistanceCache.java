@@ -0,0 +1,39 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Matrice des distances entièrement précalculée (petites instances)
+ */
+final class DenseDistanceCache extends DistanceCache
+{
+	private final double [][] matrix;
+	
+	/**
+	 * Constructeur : calcule toute la matrice (symétrique)
+	 * @param problem Le problème
+	 */
+	DenseDistanceCache (Problem problem)
+	{
+		int length = problem.getLength ();
+		this.matrix = new double [length][length];
+		for (int i = 0; i < length; i++)
+			for (int j = i + 1; j < length; j++)
+			{
+				double distance = problem.computeDistance (i, j);
+				this.matrix [i][j] = distance;
+				this.matrix [j][i] = distance;
+			}
+	}
+	
+	@Override
+	double distance (int i, int j)
+	{
+		return this.matrix [i][j];
+	}
+	
+	@Override
+	double [] getRow (int i)
+	{
+		return this.matrix [i];
+	}
+}
@@ -0,0 +1,37 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Distances recalculées à chaque demande (grandes instances)
+ * Calculer une distance ne coûte que quelques opérations : un cache de lignes ne peut que ralentir
+ * les accès dispersés des recherches locales, chaque ligne chargée coûtant n calculs
+ */
+final class DirectDistanceCache extends DistanceCache
+{
+	private final Problem problem;
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 */
+	DirectDistanceCache (Problem problem)
+	{
+		this.problem = problem;
+	}
+	
+	@Override
+	double distance (int i, int j)
+	{
+		return this.problem.computeDistance (i, j);
+	}
+	
+	@Override
+	double [] getRow (int i)
+	{
+		int length = this.problem.getLength ();
+		double [] row = new double [length];
+		for (int j = 0; j < length; j++)
+			row [j] = this.problem.computeDistance (i, j);
+		return row;
+	}
+}
@@ -0,0 +1,41 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Cache des distances entre "villes", partagé par toutes les exécutions sur un même problème
+ * La stratégie dépend de la taille du problème : matrice complète pour les petites instances,
+ * calcul direct pour les grandes
+ */
+abstract class DistanceCache
+{
+	/**
+	 * Taille mémoire maximale d'une matrice complète (en octets)
+	 */
+	static final long DENSE_MAX_BYTES = 64L * 1024 * 1024;
+	
+	/**
+	 * @param problem Le problème
+	 * @return Le cache adapté à la taille du problème
+	 */
+	static DistanceCache create (Problem problem)
+	{
+		long length = problem.getLength ();
+		if (length * length * Double.BYTES <= DistanceCache.DENSE_MAX_BYTES)
+			return new DenseDistanceCache (problem);
+		return new DirectDistanceCache (problem);
+	}
+	
+	/**
+	 * @param i L'indice d'une "ville"
+	 * @param j L'indice d'une autre "ville"
+	 * @return La distance entre les deux "villes"
+	 */
+	abstract double distance (int i, int j);
+	
+	/**
+	 * @param i L'indice d'une "ville"
+	 * @return Les distances de la "ville" à toutes les autres (tableau partagé, à ne pas modifier, sauf
+	 * pour les grandes instances où il est calculé à chaque appel)
+	 */
+	abstract double [] getRow (int i);
+}
@@ -0,0 +1,323 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Fonction de distance d'un problème (types EDGE_WEIGHT_TYPE de TSPLIB, plus la distance euclidienne exacte
+ * du format "x y"), avec les données précalculées dont elle a besoin
+ * Les distances sont calculées sans allocation ; le cache de distances du problème se place au-dessus
+ */
+abstract class DistanceKernel
+{
+	/**
+	 * @return Le nom du type de distance
+	 */
+	abstract String getName ();
+
+	/**
+	 * @return Indique si l'ordre des distances est celui de la distance euclidienne sur les coordonnées
+	 * (l'arbre k-d donne alors les plus proches voisins)
+	 */
+	abstract boolean isEuclidean ();
+
+	/**
+	 * @param i L'indice d'une "ville"
+	 * @param j L'indice d'une autre "ville"
+	 * @return La distance entre les deux "villes"
+	 */
+	abstract double distance (int i, int j);
+
+	/**
+	 * @param xs Abscisses
+	 * @param ys Ordonnées
+	 * @return Distance euclidienne exacte (format "x y")
+	 */
+	static DistanceKernel exact (double [] xs, double [] ys)
+	{
+		return new Exact (xs, ys);
+	}
+
+	/**
+	 * @param type Type TSPLIB (EUC_2D, CEIL_2D, GEO ou ATT)
+	 * @param xs Abscisses (latitudes pour GEO)
+	 * @param ys Ordonnées (longitudes pour GEO)
+	 * @return La distance correspondante
+	 * @throws IllegalArgumentException Si le type n'est pas pris en charge
+	 */
+	static DistanceKernel of (String type, double [] xs, double [] ys)
+	{
+		switch (type)
+		{
+			case "EUC_2D":
+				return new Euclidean (xs, ys);
+			case "CEIL_2D":
+				return new Ceiling (xs, ys);
+			case "ATT":
+				return new Pseudo (xs, ys);
+			case "GEO":
+				return new Geographical (xs, ys);
+			default:
+				throw new IllegalArgumentException ("Type de distance non pris en charge : " + type);
+		}
+	}
+
+	/**
+	 * @param weights Triangle inférieur de la matrice, ligne par ligne (poids (i, j), j < i, à l'indice i (i - 1) / 2 + j)
+	 * @return Distance donnée explicitement
+	 */
+	static DistanceKernel explicit (int [] weights)
+	{
+		return new Explicit (weights);
+	}
+
+	/**
+	 * Distance euclidienne exacte
+	 */
+	private static final class Exact extends DistanceKernel
+	{
+		private final double [] xs;
+		private final double [] ys;
+
+		Exact (double [] xs, double [] ys)
+		{
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "EXACT";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return true;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			double dx = this.xs [i] - this.xs [j];
+			double dy = this.ys [i] - this.ys [j];
+			return Math.sqrt (dx * dx + dy * dy);
+		}
+	}
+
+	/**
+	 * EUC_2D : distance euclidienne arrondie à l'entier le plus proche
+	 */
+	private static final class Euclidean extends DistanceKernel
+	{
+		private final double [] xs;
+		private final double [] ys;
+
+		Euclidean (double [] xs, double [] ys)
+		{
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "EUC_2D";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return true;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			double dx = this.xs [i] - this.xs [j];
+			double dy = this.ys [i] - this.ys [j];
+			return (int) (Math.sqrt (dx * dx + dy * dy) + 0.5);
+		}
+	}
+
+	/**
+	 * CEIL_2D : distance euclidienne arrondie à l'entier supérieur
+	 */
+	private static final class Ceiling extends DistanceKernel
+	{
+		private final double [] xs;
+		private final double [] ys;
+
+		Ceiling (double [] xs, double [] ys)
+		{
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "CEIL_2D";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return true;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			double dx = this.xs [i] - this.xs [j];
+			double dy = this.ys [i] - this.ys [j];
+			return Math.ceil (Math.sqrt (dx * dx + dy * dy));
+		}
+	}
+
+	/**
+	 * ATT : distance pseudo-euclidienne (coordonnées divisées par √10, arrondi à l'entier supérieur ou égal)
+	 */
+	private static final class Pseudo extends DistanceKernel
+	{
+		private final double [] xs;
+		private final double [] ys;
+
+		Pseudo (double [] xs, double [] ys)
+		{
+			this.xs = xs;
+			this.ys = ys;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "ATT";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return true;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			double dx = this.xs [i] - this.xs [j];
+			double dy = this.ys [i] - this.ys [j];
+			double r = Math.sqrt ((dx * dx + dy * dy) / 10.0);
+			int t = (int) (r + 0.5);
+			return t < r ? t + 1 : t;
+		}
+	}
+
+	/**
+	 * GEO : distance sur la sphère terrestre (coordonnées en degrés.minutes)
+	 * Les sinus et cosinus des latitudes et longitudes sont précalculés :
+	 * chaque distance ne coûte plus qu'un arc cosinus
+	 */
+	private static final class Geographical extends DistanceKernel
+	{
+		private static final double PI = 3.141592;
+		private static final double RADIUS = 6378.388;
+
+		private final double [] cosLatitudes;
+		private final double [] sinLatitudes;
+		private final double [] cosLongitudes;
+		private final double [] sinLongitudes;
+
+		Geographical (double [] xs, double [] ys)
+		{
+			int length = xs.length;
+			this.cosLatitudes = new double [length];
+			this.sinLatitudes = new double [length];
+			this.cosLongitudes = new double [length];
+			this.sinLongitudes = new double [length];
+			for (int i = 0; i < length; i++)
+			{
+				double latitude = Geographical.radians (xs [i]);
+				double longitude = Geographical.radians (ys [i]);
+				this.cosLatitudes [i] = Math.cos (latitude);
+				this.sinLatitudes [i] = Math.sin (latitude);
+				this.cosLongitudes [i] = Math.cos (longitude);
+				this.sinLongitudes [i] = Math.sin (longitude);
+			}
+		}
+
+		/**
+		 * Conversion TSPLIB : partie entière en degrés, partie décimale en minutes
+		 */
+		private static double radians (double value)
+		{
+			int degrees = (int) value;
+			double minutes = value - degrees;
+			return Geographical.PI * (degrees + 5.0 * minutes / 3.0) / 180.0;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "GEO";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return false;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			if (i == j)
+				return 0;
+			// q1 = cos (lon_i - lon_j), q2 = cos (lat_i - lat_j), q3 = cos (lat_i + lat_j)
+			double cc = this.cosLatitudes [i] * this.cosLatitudes [j];
+			double ss = this.sinLatitudes [i] * this.sinLatitudes [j];
+			double q1 = this.cosLongitudes [i] * this.cosLongitudes [j] + this.sinLongitudes [i] * this.sinLongitudes [j];
+			double q2 = cc + ss;
+			double q3 = cc - ss;
+			double q = 0.5 * ((1.0 + q1) * q2 - (1.0 - q1) * q3);
+			return (int) (Geographical.RADIUS * Math.acos (Math.max (-1, Math.min (1, q))) + 1.0);
+		}
+	}
+
+	/**
+	 * EXPLICIT : poids entiers lus dans le fichier, triangle inférieur stocké à plat
+	 */
+	private static final class Explicit extends DistanceKernel
+	{
+		private final int [] weights;
+
+		Explicit (int [] weights)
+		{
+			this.weights = weights;
+		}
+
+		@Override
+		String getName ()
+		{
+			return "EXPLICIT";
+		}
+
+		@Override
+		boolean isEuclidean ()
+		{
+			return false;
+		}
+
+		@Override
+		double distance (int i, int j)
+		{
+			if (i == j)
+				return 0;
+			if (i < j)
+			{
+				int tmp = i;
+				i = j;
+				j = tmp;
+			}
+			return this.weights [(int) ((long) i * (i - 1) / 2) + j];
+		}
+	}
+}
@@ -1,16 +1,64 @@
 package tsp.evaluation;
 
-import tsp.run.MonitorChart;
-import tsp.run.PathChart;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.concurrent.atomic.AtomicReference;
+import java.util.concurrent.atomic.LongAdder;
+
+import tsp.evaluation.EvaluationStatistics.Improvement;
 
 /**
  * @author Alexandre Blansché
  * Évaluation d'un chemin pour un problème TSP
+ * Les méthodes d'évaluation peuvent être appelées en parallèle par plusieurs threads :
+ * la meilleure solution est publiée de façon atomique (CAS) et sa lecture ne bloque jamais
+ * Les évaluations et les améliorations sont signalées à l'observateur de l'exécution, s'il y en a un
+ * Le budget de temps de l'exécution est accessible aux projets par l'évaluation
+ * Les compteurs (LongAdder) et l'historique des améliorations sont relevés par getStatistics ()
  */
 public final class Evaluation
 {
-	private double bestEvaluation;
+	private final AtomicReference <Best> best;
 	private Problem problem;
+	private final LongAdder nbEvaluations;
+	private final LongAdder nbQuickEvaluations;
+	private final LongAdder nbDeltaEvaluations;
+	private volatile EvaluationListener listener;
+	private final Budget budget;
+	private final long start;
+	
+	/**
+	 * Meilleure solution publiée : évaluation, copie du chemin et historique des améliorations, jamais modifiés
+	 */
+	private static final class Best
+	{
+		private final double evaluation;
+		private final int [] path;
+		private final Trace trace;
+		
+		private Best (double evaluation, int [] path, Trace trace)
+		{
+			this.evaluation = evaluation;
+			this.path = path;
+			this.trace = trace;
+		}
+	}
+	
+	/**
+	 * Historique des améliorations, de la plus récente à la plus ancienne
+	 * (publié avec la meilleure solution : aucune synchronisation supplémentaire, les chemins ne sont pas retenus)
+	 */
+	private static final class Trace
+	{
+		private final Improvement improvement;
+		private final Trace previous;
+		
+		private Trace (Improvement improvement, Trace previous)
+		{
+			this.improvement = improvement;
+			this.previous = previous;
+		}
+	}
 	
 	/**
 	 * Constructeur
@@ -18,8 +66,23 @@ public final class Evaluation
 	 */
 	public Evaluation (Problem problem)
 	{
-		this.setBestEvaluation (Double.MAX_VALUE);
+		this (problem, Budget.UNLIMITED);
+	}
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème (liste de "villes")
+	 * @param budget Le budget de temps de l'exécution
+	 */
+	public Evaluation (Problem problem, Budget budget)
+	{
+		this.budget = budget;
+		this.start = System.nanoTime ();
+		this.best = new AtomicReference <Best> (new Best (Double.MAX_VALUE, null, null));
 		this.problem = problem;
+		this.nbEvaluations = new LongAdder ();
+		this.nbQuickEvaluations = new LongAdder ();
+		this.nbDeltaEvaluations = new LongAdder ();
 	}
 	
 	/**
@@ -61,43 +124,50 @@ public final class Evaluation
 	 */
 	public double evaluate (Path path)
 	{
+	    this.nbEvaluations.increment ();
 	    double evaluation = this.quickEvaluateHidden (path);
 	    if (evaluation < this.getBestEvaluation())
 	    {
 	    	if (this.isValid (path))
 	    	{
-	    		if (!Thread.currentThread ().isInterrupted ())
+	    		if (!Thread.currentThread ().isInterrupted () && !this.budget.expired ())
 	    		{
-	    			this.setBestEvaluation (evaluation);
-	    			PathChart.getInstance().changePath (path);
+	    			int [] copy = path.getCopyPath ();
+	    			EvaluationListener listener = this.listener;
+	    			if (this.publish (evaluation, copy) && listener != null)
+	    				listener.improved (new Path (copy));
 	    		}
 	    	}
 	    }
-		MonitorChart.getInstance().addData (evaluation, this.getBestEvaluation());
+	    this.signal (evaluation);
 	    return evaluation;
 	}
 	
+	private boolean publish (double evaluation, int [] path)
+	{
+		Improvement improvement = new Improvement (System.nanoTime () - this.start, this.budget.getConsumed (), this.nbEvaluations.sum (), evaluation);
+		Best current = this.best.get ();
+		while (evaluation < current.evaluation)
+		{
+			if (this.best.compareAndSet (current, new Best (evaluation, path, new Trace (improvement, current.trace))))
+				return true;
+			current = this.best.get ();
+		}
+		return false;
+	}
+	
     private double quickEvaluateHidden (Path path)
     {
+        return this.quickEvaluateHidden (path.getPath ());
+    }
+    
+    private double quickEvaluateHidden (int [] p)
+    {
+        Problem problem = this.problem;
         double evaluation = 0;
-        int [] p = path.getPath ();
-        Coordinates c1 = this.problem.getCoordinates (p [0]);
-        Coordinates c2 = null;
         for (int i = 1; i < p.length; i++)
-        {
-            c2 = this.problem.getCoordinates (p [i]);
-            evaluation += c1.distance (c2);
-            System.out.println(i);
-            System.out.println(c1.distance (c2));
-            System.out.println(evaluation);
-            System.out.println();
-            c1 = c2;
-        }
-        c2 = this.problem.getCoordinates (p [0]);
-        evaluation += c1.distance (c2);
-        System.out.println(c1.distance (c2));
-        System.out.println(evaluation);
-        return evaluation;
+            evaluation += problem.distance (p [i - 1], p [i]);
+        return evaluation + problem.distance (p [p.length - 1], p [0]);
     }
     
     /**
@@ -107,10 +177,213 @@ public final class Evaluation
      */
     public double quickEvaluate (Path path)
     {
+        this.nbQuickEvaluations.increment ();
         double evaluation = this.quickEvaluateHidden (path);
-        MonitorChart.getInstance().addData (evaluation, this.getBestEvaluation());
+        this.signal (evaluation);
         return evaluation;
     }
+    
+    private void signal (double evaluation)
+    {
+        EvaluationListener listener = this.listener;
+        if (listener != null)
+            listener.evaluated (evaluation, this.getBestEvaluation ());
+    }
+
+	/**
+	 * Variation de longueur en temps constant du mouvement 2-opt : inversion de la portion [i + 1, j]
+	 * (voir Path.twoOpt)
+	 * @param path Le chemin courant (non modifié)
+	 * @param i Position de la première arête supprimée (path [i], path [i + 1])
+	 * @param j Position de la seconde arête supprimée (path [j], path [j + 1])
+	 * @return La variation de la distance parcourue (négative si le mouvement améliore le chemin)
+	 */
+	public double delta2Opt (Path path, int i, int j)
+	{
+		this.nbDeltaEvaluations.increment ();
+		int [] p = path.getPath ();
+		int n = p.length;
+		if (i == j)
+			return 0;
+		if (i > j)
+		{
+			int tmp = i;
+			i = j;
+			j = tmp;
+		}
+		int a = p [i];
+		int b = p [i + 1 == n ? 0 : i + 1];
+		int c = p [j];
+		int d = p [j + 1 == n ? 0 : j + 1];
+		Problem problem = this.problem;
+		return problem.distance (a, c) + problem.distance (b, d) - problem.distance (a, b) - problem.distance (c, d);
+	}
+	
+	/**
+	 * Variation de longueur en temps constant de l'échange des "villes" aux positions i et j
+	 * (voir Path.swap)
+	 * @param path Le chemin courant (non modifié)
+	 * @param i Position d'une "ville"
+	 * @param j Position d'une autre "ville"
+	 * @return La variation de la distance parcourue (négative si le mouvement améliore le chemin)
+	 */
+	public double deltaSwap (Path path, int i, int j)
+	{
+		this.nbDeltaEvaluations.increment ();
+		int [] p = path.getPath ();
+		int n = p.length;
+		if (i == j || n <= 3)
+			return 0;
+		Problem problem = this.problem;
+		int nextI = i + 1 == n ? 0 : i + 1;
+		int nextJ = j + 1 == n ? 0 : j + 1;
+		if (nextI == j || nextJ == i)
+		{
+			if (nextJ == i)
+			{
+				int tmp = i;
+				i = j;
+				j = tmp;
+				nextJ = nextI;
+			}
+			int a = p [i == 0 ? n - 1 : i - 1];
+			int b = p [i];
+			int c = p [j];
+			int d = p [nextJ];
+			return problem.distance (a, c) + problem.distance (b, d) - problem.distance (a, b) - problem.distance (c, d);
+		}
+		int a = p [i == 0 ? n - 1 : i - 1];
+		int b = p [i];
+		int c = p [nextI];
+		int d = p [j == 0 ? n - 1 : j - 1];
+		int e = p [j];
+		int f = p [nextJ];
+		return problem.distance (a, e) + problem.distance (e, c) + problem.distance (d, b) + problem.distance (b, f)
+			- problem.distance (a, b) - problem.distance (b, c) - problem.distance (d, e) - problem.distance (e, f);
+	}
+	
+	/**
+	 * Variation de longueur en temps constant du déplacement d'un segment (Or-opt)
+	 * (voir Path.orOpt)
+	 * @param path Le chemin courant (non modifié)
+	 * @param segStart Position de la première "ville" du segment
+	 * @param segLen Nombre de "villes" du segment
+	 * @param insertPos Position, en dehors du segment, de la "ville" après laquelle le segment est inséré
+	 * @return La variation de la distance parcourue (négative si le mouvement améliore le chemin)
+	 */
+	public double deltaOrOpt (Path path, int segStart, int segLen, int insertPos)
+	{
+		return this.deltaOrOpt (path, segStart, segLen, insertPos, false);
+	}
+	
+	/**
+	 * Variation de longueur en temps constant du déplacement d'un segment (Or-opt)
+	 * (voir Path.orOpt)
+	 * @param path Le chemin courant (non modifié)
+	 * @param segStart Position de la première "ville" du segment
+	 * @param segLen Nombre de "villes" du segment
+	 * @param insertPos Position, en dehors du segment, de la "ville" après laquelle le segment est inséré
+	 * @param reversed Indique si le segment est inséré à l'envers
+	 * @return La variation de la distance parcourue (négative si le mouvement améliore le chemin)
+	 */
+	public double deltaOrOpt (Path path, int segStart, int segLen, int insertPos, boolean reversed)
+	{
+		this.nbDeltaEvaluations.increment ();
+		int [] p = path.getPath ();
+		int n = p.length;
+		if (segLen <= 0 || segLen >= n - 1)
+			return 0;
+		Problem problem = this.problem;
+		int segEnd = (segStart + segLen - 1) % n;
+		int prev = p [segStart == 0 ? n - 1 : segStart - 1];
+		int first = p [segStart];
+		int last = p [segEnd];
+		int next = p [segEnd + 1 == n ? 0 : segEnd + 1];
+		if (p [insertPos] == prev)
+			return reversed ? problem.distance (prev, last) + problem.distance (first, next) - problem.distance (prev, first) - problem.distance (last, next) : 0;
+		int c = p [insertPos];
+		int d = p [insertPos + 1 == n ? 0 : insertPos + 1];
+		double removed = problem.distance (prev, first) + problem.distance (last, next) + problem.distance (c, d);
+		double added = problem.distance (prev, next);
+		if (reversed)
+			added += problem.distance (c, last) + problem.distance (first, d);
+		else
+			added += problem.distance (c, first) + problem.distance (last, d);
+		return added - removed;
+	}
+	
+	/**
+	 * Variation de longueur en temps constant du mouvement 3-opt sans inversion (échange des portions
+	 * [i + 1, j] et [j + 1, k], voir Path.threeOpt)
+	 * @param path Le chemin courant (non modifié)
+	 * @param i Position de la première arête supprimée, avec i &lt; j &lt; k
+	 * @param j Position de la deuxième arête supprimée
+	 * @param k Position de la troisième arête supprimée
+	 * @return La variation de la distance parcourue (négative si le mouvement améliore le chemin)
+	 */
+	public double delta3Opt (Path path, int i, int j, int k)
+	{
+		this.nbDeltaEvaluations.increment ();
+		int [] p = path.getPath ();
+		int n = p.length;
+		int a = p [i];
+		int b = p [i + 1];
+		int c = p [j];
+		int d = p [j + 1];
+		int e = p [k];
+		int f = p [k + 1 == n ? 0 : k + 1];
+		Problem problem = this.problem;
+		return problem.distance (a, d) + problem.distance (e, b) + problem.distance (c, f)
+			- problem.distance (a, b) - problem.distance (c, d) - problem.distance (e, f);
+	}
+	
+	/**
+	 * @return Nombre d'appels à evaluate
+	 */
+	public long getNbEvaluations ()
+	{
+		return this.nbEvaluations.sum ();
+	}
+	
+	/**
+	 * @return Nombre d'appels à quickEvaluate
+	 */
+	public long getNbQuickEvaluations ()
+	{
+		return this.nbQuickEvaluations.sum ();
+	}
+	
+	/**
+	 * @return Nombre de calculs de variation (delta2Opt, deltaSwap, deltaOrOpt, delta3Opt)
+	 */
+	public long getNbDeltaEvaluations ()
+	{
+		return this.nbDeltaEvaluations.sum ();
+	}
+
+	/**
+	 * Relevé des compteurs, sans bloquer les threads qui évaluent
+	 * (les compteurs sont lus l'un après l'autre : un relevé concurrent peut être légèrement décalé)
+	 * @return Les statistiques de l'évaluation à cet instant
+	 */
+	public EvaluationStatistics getStatistics ()
+	{
+		long elapsedTime = System.nanoTime () - this.start;
+		ArrayList <Improvement> improvements = new ArrayList <Improvement> ();
+		for (Trace trace = this.best.get ().trace; trace != null; trace = trace.previous)
+			improvements.add (trace.improvement);
+		Collections.reverse (improvements);
+		return new EvaluationStatistics (this.getNbEvaluations (), this.getNbQuickEvaluations (), this.getNbDeltaEvaluations (),
+				elapsedTime, this.budget.getConsumed (), improvements);
+	}
+
+	/**
+	 * @param listener Observateur des évaluations (null pour aucun)
+	 */
+	public void setListener (EvaluationListener listener)
+	{
+		this.listener = listener;
+	}
 
 	/**
 	 * @return Le problème TSP
@@ -120,16 +393,28 @@ public final class Evaluation
 		return this.problem;
 	}
 
+	/**
+	 * @return Le budget de temps de l'exécution
+	 */
+	public Budget getBudget ()
+	{
+		return this.budget;
+	}
+
 	/**
 	 * @return L'évaluation de la meilleure solution
 	 */
 	public double getBestEvaluation ()
 	{
-		return this.bestEvaluation;
+		return this.best.get ().evaluation;
 	}
 
-	private void setBestEvaluation (double bestEvaluation)
+	/**
+	 * @return Une copie du meilleur chemin (ou null si aucun chemin valide n'a été évalué)
+	 */
+	public Path getBestPath ()
 	{
-		this.bestEvaluation = bestEvaluation;
+		int [] path = this.best.get ().path;
+		return path == null ? null : new Path (path.clone ());
 	}
 }
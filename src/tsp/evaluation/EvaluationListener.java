@@ -0,0 +1,22 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Observateur d'une évaluation (graphiques, télémétrie) : chaque exécution a le sien
+ * Les méthodes sont appelées par les threads de calcul et ne doivent pas bloquer
+ */
+public interface EvaluationListener
+{
+	/**
+	 * Un chemin vient d'être évalué
+	 * @param current Évaluation du chemin
+	 * @param best Évaluation de la meilleure solution
+	 */
+	public void evaluated (double current, double best);
+
+	/**
+	 * Une meilleure solution vient d'être publiée
+	 * @param best Le nouveau meilleur chemin, qui ne doit pas être modifié
+	 */
+	public void improved (Path best);
+}
@@ -0,0 +1,206 @@
+package tsp.evaluation;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * @author Alexandre Blansché
+ * Relevé des compteurs d'une évaluation à un instant donné : nombres d'évaluations (complètes, rapides,
+ * variations), débits, et améliorations successives de la meilleure solution avec leur date
+ * (courbe de performance "anytime", temps pour atteindre une cible)
+ * Les durées sont en nanosecondes depuis la création de l'évaluation ; le temps processeur est celui
+ * du budget de l'exécution (0 hors du programme d'évaluation)
+ */
+public final class EvaluationStatistics
+{
+	private final long nbEvaluations;
+	private final long nbQuickEvaluations;
+	private final long nbDeltaEvaluations;
+	private final long elapsedTime;
+	private final long cpuTime;
+	private final List <Improvement> improvements;
+
+	/**
+	 * Amélioration de la meilleure solution
+	 */
+	public static final class Improvement
+	{
+		private final long elapsedTime;
+		private final long cpuTime;
+		private final long nbEvaluations;
+		private final double evaluation;
+
+		/**
+		 * Constructeur
+		 * @param elapsedTime Date de l'amélioration (ns, temps réel)
+		 * @param cpuTime Temps processeur consommé à l'amélioration (ns)
+		 * @param nbEvaluations Nombre d'évaluations complètes, celle-ci comprise
+		 * @param evaluation Nouvelle meilleure évaluation
+		 */
+		public Improvement (long elapsedTime, long cpuTime, long nbEvaluations, double evaluation)
+		{
+			this.elapsedTime = elapsedTime;
+			this.cpuTime = cpuTime;
+			this.nbEvaluations = nbEvaluations;
+			this.evaluation = evaluation;
+		}
+
+		/**
+		 * @return Date de l'amélioration (ns, temps réel)
+		 */
+		public long getElapsedTime ()
+		{
+			return this.elapsedTime;
+		}
+
+		/**
+		 * @return Temps processeur consommé à l'amélioration (ns)
+		 */
+		public long getCpuTime ()
+		{
+			return this.cpuTime;
+		}
+
+		/**
+		 * @return Nombre d'évaluations complètes, celle-ci comprise
+		 */
+		public long getNbEvaluations ()
+		{
+			return this.nbEvaluations;
+		}
+
+		/**
+		 * @return Nouvelle meilleure évaluation
+		 */
+		public double getEvaluation ()
+		{
+			return this.evaluation;
+		}
+	}
+
+	/**
+	 * Constructeur
+	 * @param nbEvaluations Nombre d'évaluations complètes
+	 * @param nbQuickEvaluations Nombre d'évaluations rapides
+	 * @param nbDeltaEvaluations Nombre de calculs de variation
+	 * @param elapsedTime Durée écoulée (ns, temps réel)
+	 * @param cpuTime Temps processeur consommé (ns)
+	 * @param improvements Améliorations, dans l'ordre chronologique
+	 */
+	public EvaluationStatistics (long nbEvaluations, long nbQuickEvaluations, long nbDeltaEvaluations,
+			long elapsedTime, long cpuTime, List <Improvement> improvements)
+	{
+		this.nbEvaluations = nbEvaluations;
+		this.nbQuickEvaluations = nbQuickEvaluations;
+		this.nbDeltaEvaluations = nbDeltaEvaluations;
+		this.elapsedTime = elapsedTime;
+		this.cpuTime = cpuTime;
+		this.improvements = Collections.unmodifiableList (new ArrayList <Improvement> (improvements));
+	}
+
+	/**
+	 * @return Nombre d'appels à evaluate
+	 */
+	public long getNbEvaluations ()
+	{
+		return this.nbEvaluations;
+	}
+
+	/**
+	 * @return Nombre d'appels à quickEvaluate
+	 */
+	public long getNbQuickEvaluations ()
+	{
+		return this.nbQuickEvaluations;
+	}
+
+	/**
+	 * @return Nombre de calculs de variation (delta2Opt, deltaSwap, deltaOrOpt, delta3Opt)
+	 */
+	public long getNbDeltaEvaluations ()
+	{
+		return this.nbDeltaEvaluations;
+	}
+
+	/**
+	 * @return Nombre d'améliorations de la meilleure solution
+	 */
+	public int getNbImprovements ()
+	{
+		return this.improvements.size ();
+	}
+
+	/**
+	 * @return Durée écoulée au relevé (ns, temps réel)
+	 */
+	public long getElapsedTime ()
+	{
+		return this.elapsedTime;
+	}
+
+	/**
+	 * @return Temps processeur consommé au relevé (ns)
+	 */
+	public long getCpuTime ()
+	{
+		return this.cpuTime;
+	}
+
+	/**
+	 * @return Les améliorations, dans l'ordre chronologique (liste non modifiable)
+	 */
+	public List <Improvement> getImprovements ()
+	{
+		return this.improvements;
+	}
+
+	/**
+	 * @return Évaluations complètes par seconde (temps réel)
+	 */
+	public double getEvaluationsPerSecond ()
+	{
+		return this.rate (this.nbEvaluations);
+	}
+
+	/**
+	 * @return Évaluations rapides par seconde (temps réel)
+	 */
+	public double getQuickEvaluationsPerSecond ()
+	{
+		return this.rate (this.nbQuickEvaluations);
+	}
+
+	/**
+	 * @return Calculs de variation par seconde (temps réel)
+	 */
+	public double getDeltaEvaluationsPerSecond ()
+	{
+		return this.rate (this.nbDeltaEvaluations);
+	}
+
+	private double rate (long count)
+	{
+		return this.elapsedTime <= 0 ? 0 : count * 1e9 / this.elapsedTime;
+	}
+
+	/**
+	 * @param target Évaluation cible
+	 * @return La première amélioration qui atteint la cible (null si elle n'a pas été atteinte)
+	 */
+	public Improvement getTimeToTarget (double target)
+	{
+		for (Improvement improvement: this.improvements)
+			if (improvement.evaluation <= target)
+				return improvement;
+		return null;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return this.nbEvaluations + " évaluations, " + this.nbQuickEvaluations + " évaluations rapides, "
+				+ this.nbDeltaEvaluations + " variations, " + this.improvements.size () + " améliorations en "
+				+ (this.elapsedTime / 1e9) + " s (" + (long) this.getEvaluationsPerSecond () + " évaluations/s)";
+	}
+}
@@ -0,0 +1,413 @@
+package tsp.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * @author Alexandre Blansché
+ * Arbre k-d (implicite, stocké dans un tableau) sur les coordonnées des "villes"
+ * Construit une seule fois par problème, il est ensuite partagé en lecture seule
+ * Les recherches avec suppression (plus proche "ville" non visitée) passent par une Search,
+ * propre à chaque utilisateur
+ * L'arbre ordonne les "villes" selon la distance euclidienne de leurs coordonnées : pour une distance
+ * non euclidienne (GEO par exemple), une Search parcourt toutes les "villes" restantes avec Problem.distance
+ */
+public final class KdTree
+{
+	private final Problem problem;
+	private final boolean euclidean;
+	private final double [] xs;
+	private final double [] ys;
+	private final int [] index;
+	private final int [] position;
+	private final boolean [] splitX;
+	
+	/**
+	 * Construction en O(n log n)
+	 * @param problem Le problème
+	 */
+	KdTree (Problem problem)
+	{
+		int length = problem.getLength ();
+		this.problem = problem;
+		this.euclidean = problem.isEuclidean ();
+		this.xs = new double [length];
+		this.ys = new double [length];
+		this.index = new int [length];
+		this.position = new int [length];
+		this.splitX = new boolean [length];
+		for (int i = 0; i < length; i++)
+		{
+			this.xs [i] = problem.getX (i);
+			this.ys [i] = problem.getY (i);
+			this.index [i] = i;
+		}
+		this.build (0, length);
+		for (int i = 0; i < length; i++)
+			this.position [this.index [i]] = i;
+	}
+	
+	private void build (int lo, int hi)
+	{
+		while (hi - lo > 1)
+		{
+			double minX = Double.MAX_VALUE, maxX = -Double.MAX_VALUE;
+			double minY = Double.MAX_VALUE, maxY = -Double.MAX_VALUE;
+			for (int i = lo; i < hi; i++)
+			{
+				int city = this.index [i];
+				minX = Math.min (minX, this.xs [city]);
+				maxX = Math.max (maxX, this.xs [city]);
+				minY = Math.min (minY, this.ys [city]);
+				maxY = Math.max (maxY, this.ys [city]);
+			}
+			boolean splitX = maxX - minX >= maxY - minY;
+			int mid = (lo + hi) >>> 1;
+			this.select (lo, hi - 1, mid, splitX ? this.xs : this.ys);
+			this.splitX [mid] = splitX;
+			this.build (lo, mid);
+			lo = mid + 1;
+		}
+	}
+	
+	private void select (int left, int right, int k, double [] coords)
+	{
+		int [] index = this.index;
+		while (right > left)
+		{
+			double pivot = coords [index [(left + right) >>> 1]];
+			int i = left, j = right;
+			while (i <= j)
+			{
+				while (coords [index [i]] < pivot)
+					i++;
+				while (coords [index [j]] > pivot)
+					j--;
+				if (i <= j)
+				{
+					int tmp = index [i];
+					index [i] = index [j];
+					index [j] = tmp;
+					i++;
+					j--;
+				}
+			}
+			if (k <= j)
+				right = j;
+			else if (k >= i)
+				left = i;
+			else
+				return;
+		}
+	}
+	
+	/**
+	 * @param city Une "ville"
+	 * @param k Nombre de voisins
+	 * @return Les k plus proches voisins de la "ville" (elle exclue), du plus proche au plus éloigné,
+	 * selon la distance euclidienne des coordonnées (Problem.getNeighbourLists tient compte de la distance du problème)
+	 */
+	public int [] nearest (int city, int k)
+	{
+		k = Math.min (k, this.index.length - 1);
+		Heap heap = new Heap (k);
+		this.nearest (0, this.index.length, this.xs [city], this.ys [city], city, heap);
+		return heap.sorted ();
+	}
+	
+	private void nearest (int lo, int hi, double x, double y, int excluded, Heap heap)
+	{
+		if (lo >= hi)
+			return;
+		int mid = (lo + hi) >>> 1;
+		int city = this.index [mid];
+		if (city != excluded)
+		{
+			double dx = this.xs [city] - x;
+			double dy = this.ys [city] - y;
+			heap.offer (city, dx * dx + dy * dy);
+		}
+		double diff = this.splitX [mid] ? x - this.xs [city] : y - this.ys [city];
+		if (diff < 0)
+		{
+			this.nearest (lo, mid, x, y, excluded, heap);
+			if (diff * diff < heap.bound ())
+				this.nearest (mid + 1, hi, x, y, excluded, heap);
+		}
+		else
+		{
+			this.nearest (mid + 1, hi, x, y, excluded, heap);
+			if (diff * diff < heap.bound ())
+				this.nearest (lo, mid, x, y, excluded, heap);
+		}
+	}
+	
+	/**
+	 * @param city Une "ville"
+	 * @param radius Un rayon
+	 * @return Les "villes" (elle exclue) à une distance euclidienne inférieure ou égale au rayon, sans ordre particulier
+	 */
+	public int [] radius (int city, double radius)
+	{
+		int [][] result = {new int [16]};
+		int size = this.radius (0, this.index.length, this.xs [city], this.ys [city], radius, city, result, 0);
+		return Arrays.copyOf (result [0], size);
+	}
+	
+	private int radius (int lo, int hi, double x, double y, double radius, int excluded, int [][] result, int size)
+	{
+		if (lo >= hi)
+			return size;
+		int mid = (lo + hi) >>> 1;
+		int city = this.index [mid];
+		double dx = this.xs [city] - x;
+		double dy = this.ys [city] - y;
+		if (city != excluded && Math.sqrt (dx * dx + dy * dy) <= radius)
+		{
+			if (size == result [0].length)
+				result [0] = Arrays.copyOf (result [0], 2 * size);
+			result [0][size++] = city;
+		}
+		double diff = this.splitX [mid] ? -dx : -dy;
+		if (diff < 0 || diff <= radius)
+			size = this.radius (lo, mid, x, y, radius, excluded, result, size);
+		if (diff >= 0 || -diff <= radius)
+			size = this.radius (mid + 1, hi, x, y, radius, excluded, result, size);
+		return size;
+	}
+	
+	/**
+	 * @return Une nouvelle recherche avec suppression, où toutes les "villes" sont présentes
+	 */
+	public Search newSearch ()
+	{
+		return new Search ();
+	}
+	
+	/**
+	 * Recherche du plus proche voisin parmi les "villes" non supprimées (par exemple non visitées)
+	 * Chaque nœud compte les "villes" restantes de son sous-arbre pour ignorer les sous-arbres vides
+	 */
+	public final class Search
+	{
+		private final int [] remaining;
+		private final boolean [] removed;
+		private int best;
+		private double bestDistance;
+		
+		private Search ()
+		{
+			int length = KdTree.this.index.length;
+			this.remaining = new int [length];
+			this.removed = new boolean [length];
+			this.reset ();
+		}
+		
+		/**
+		 * Remet toutes les "villes"
+		 */
+		public void reset ()
+		{
+			Arrays.fill (this.removed, false);
+			this.count (0, this.remaining.length);
+		}
+		
+		private int count (int lo, int hi)
+		{
+			if (lo >= hi)
+				return 0;
+			int mid = (lo + hi) >>> 1;
+			this.remaining [mid] = hi - lo;
+			this.count (lo, mid);
+			this.count (mid + 1, hi);
+			return hi - lo;
+		}
+		
+		/**
+		 * @param city Une "ville" à supprimer (en O(log n))
+		 */
+		public void remove (int city)
+		{
+			if (this.removed [city])
+				return;
+			this.removed [city] = true;
+			int target = KdTree.this.position [city];
+			int lo = 0, hi = this.remaining.length;
+			while (true)
+			{
+				int mid = (lo + hi) >>> 1;
+				this.remaining [mid]--;
+				if (target == mid)
+					break;
+				if (target < mid)
+					hi = mid;
+				else
+					lo = mid + 1;
+			}
+		}
+		
+		/**
+		 * @param city Une "ville"
+		 * @return Indique si la "ville" a été supprimée
+		 */
+		public boolean isRemoved (int city)
+		{
+			return this.removed [city];
+		}
+		
+		/**
+		 * @param city Une "ville"
+		 * @return La "ville" restante la plus proche (elle exclue, la plus petite en cas d'égalité), ou -1 s'il n'en reste aucune
+		 */
+		public int nearest (int city)
+		{
+			if (!KdTree.this.euclidean)
+				return this.scan (city);
+			this.best = -1;
+			this.bestDistance = Double.MAX_VALUE;
+			this.nearest (0, this.remaining.length, KdTree.this.xs [city], KdTree.this.ys [city], city);
+			return this.best;
+		}
+		
+		/**
+		 * Parcours de toutes les "villes" restantes (distance non euclidienne), en O(n)
+		 */
+		private int scan (int city)
+		{
+			Problem problem = KdTree.this.problem;
+			int best = -1;
+			double bestDistance = Double.MAX_VALUE;
+			for (int other = 0; other < this.removed.length; other++)
+				if (!this.removed [other] && other != city)
+				{
+					double distance = problem.distance (city, other);
+					if (distance < bestDistance)
+					{
+						bestDistance = distance;
+						best = other;
+					}
+				}
+			return best;
+		}
+		
+		private void nearest (int lo, int hi, double x, double y, int excluded)
+		{
+			if (lo >= hi)
+				return;
+			int mid = (lo + hi) >>> 1;
+			if (this.remaining [mid] == 0)
+				return;
+			int city = KdTree.this.index [mid];
+			double dx = KdTree.this.xs [city] - x;
+			double dy = KdTree.this.ys [city] - y;
+			if (!this.removed [city] && city != excluded)
+			{
+				double distance = dx * dx + dy * dy;
+				if (distance < this.bestDistance || (distance == this.bestDistance && city < this.best))
+				{
+					this.bestDistance = distance;
+					this.best = city;
+				}
+			}
+			double diff = KdTree.this.splitX [mid] ? -dx : -dy;
+			if (diff < 0)
+			{
+				this.nearest (lo, mid, x, y, excluded);
+				if (diff * diff <= this.bestDistance)
+					this.nearest (mid + 1, hi, x, y, excluded);
+			}
+			else
+			{
+				this.nearest (mid + 1, hi, x, y, excluded);
+				if (diff * diff <= this.bestDistance)
+					this.nearest (lo, mid, x, y, excluded);
+			}
+		}
+	}
+	
+	/**
+	 * Tas max borné des k meilleurs candidats
+	 */
+	private static final class Heap
+	{
+		private final int [] cities;
+		private final double [] distances;
+		private int size;
+		
+		private Heap (int capacity)
+		{
+			this.cities = new int [capacity];
+			this.distances = new double [capacity];
+		}
+		
+		private double bound ()
+		{
+			return this.size < this.cities.length ? Double.MAX_VALUE : this.distances [0];
+		}
+		
+		private void offer (int city, double distance)
+		{
+			if (this.size < this.cities.length)
+			{
+				int i = this.size++;
+				while (i > 0 && this.distances [(i - 1) / 2] < distance)
+				{
+					this.cities [i] = this.cities [(i - 1) / 2];
+					this.distances [i] = this.distances [(i - 1) / 2];
+					i = (i - 1) / 2;
+				}
+				this.cities [i] = city;
+				this.distances [i] = distance;
+			}
+			else if (this.size > 0 && distance < this.distances [0])
+			{
+				int i = 0;
+				while (true)
+				{
+					int child = 2 * i + 1;
+					if (child >= this.size)
+						break;
+					if (child + 1 < this.size && this.distances [child + 1] > this.distances [child])
+						child++;
+					if (this.distances [child] <= distance)
+						break;
+					this.cities [i] = this.cities [child];
+					this.distances [i] = this.distances [child];
+					i = child;
+				}
+				this.cities [i] = city;
+				this.distances [i] = distance;
+			}
+		}
+		
+		private int [] sorted ()
+		{
+			int [] result = new int [this.size];
+			while (this.size > 0)
+			{
+				result [this.size - 1] = this.cities [0];
+				int city = this.cities [--this.size];
+				double distance = this.distances [this.size];
+				int i = 0;
+				while (true)
+				{
+					int child = 2 * i + 1;
+					if (child >= this.size)
+						break;
+					if (child + 1 < this.size && this.distances [child + 1] > this.distances [child])
+						child++;
+					if (this.distances [child] <= distance)
+						break;
+					this.cities [i] = this.cities [child];
+					this.distances [i] = this.distances [child];
+					i = child;
+				}
+				if (this.size > 0)
+				{
+					this.cities [i] = city;
+					this.distances [i] = distance;
+				}
+			}
+			return result;
+		}
+	}
+}
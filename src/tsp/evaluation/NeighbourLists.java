@@ -0,0 +1,106 @@
+package tsp.evaluation;
+
+import java.util.Arrays;
+
+/**
+ * @author Alexandre Blansché
+ * Listes des k plus proches voisins de chaque "ville", triées par distance croissante
+ * Calculées une seule fois par problème et partagées (les tableaux ne doivent pas être modifiés)
+ */
+public final class NeighbourLists
+{
+	private final int k;
+	private final int [][] neighbours;
+	
+	NeighbourLists (int k, int [][] neighbours)
+	{
+		this.k = k;
+		this.neighbours = neighbours;
+	}
+	
+	/**
+	 * Calcul des listes de voisins : avec l'arbre k-d du problème en O(n k log n) si la distance
+	 * suit l'ordre euclidien, exhaustif en O(n²) sinon
+	 * @param problem Le problème
+	 * @param k Nombre de voisins par "ville"
+	 * @return Les listes de voisins
+	 */
+	static NeighbourLists compute (Problem problem, int k)
+	{
+		if (!problem.isEuclidean ())
+			return NeighbourLists.computeExhaustive (problem, k);
+		int length = problem.getLength ();
+		k = Math.min (k, length - 1);
+		KdTree tree = problem.getKdTree ();
+		int [][] neighbours = new int [length][];
+		for (int i = 0; i < length; i++)
+			neighbours [i] = tree.nearest (i, k);
+		return new NeighbourLists (k, neighbours);
+	}
+	
+	/**
+	 * Calcul exhaustif des listes de voisins
+	 * @param problem Le problème
+	 * @param k Nombre de voisins par "ville"
+	 * @return Les listes de voisins
+	 */
+	static NeighbourLists computeExhaustive (Problem problem, int k)
+	{
+		int length = problem.getLength ();
+		k = Math.min (k, length - 1);
+		int [][] neighbours = new int [length][k];
+		double [] distances = new double [k];
+		for (int i = 0; i < length; i++)
+		{
+			int [] list = neighbours [i];
+			int size = 0;
+			for (int j = 0; j < length; j++)
+			{
+				if (j == i)
+					continue;
+				double distance = problem.computeDistance (i, j);
+				if (size == k && distance >= distances [k - 1])
+					continue;
+				int position = size < k ? size++ : k - 1;
+				while (position > 0 && distances [position - 1] > distance)
+				{
+					distances [position] = distances [position - 1];
+					list [position] = list [position - 1];
+					position--;
+				}
+				distances [position] = distance;
+				list [position] = j;
+			}
+		}
+		return new NeighbourLists (k, neighbours);
+	}
+	
+	/**
+	 * @param k Nombre de voisins à conserver (inférieur ou égal au nombre actuel)
+	 * @return Les listes tronquées
+	 */
+	NeighbourLists truncate (int k)
+	{
+		int [][] neighbours = new int [this.neighbours.length][];
+		for (int i = 0; i < neighbours.length; i++)
+			neighbours [i] = Arrays.copyOf (this.neighbours [i], k);
+		return new NeighbourLists (k, neighbours);
+	}
+	
+	/**
+	 * @return Nombre de voisins par "ville"
+	 */
+	public int getK ()
+	{
+		return this.k;
+	}
+	
+	/**
+	 * @param city L'indice d'une "ville"
+	 * @return Ses voisins, du plus proche au plus éloigné (tableau partagé, à ne pas modifier)
+	 */
+	public int [] get (int city)
+	{
+		return this.neighbours [city];
+	}
+}
@@ -79,6 +79,103 @@ public final class Path
 		return path;
 	}
 	
+	/**
+	 * Mouvement 2-opt : inverse la portion [i + 1, j] (voir Evaluation.delta2Opt)
+	 * @param i Position de la première arête supprimée
+	 * @param j Position de la seconde arête supprimée
+	 */
+	public void twoOpt (int i, int j)
+	{
+		if (i > j)
+		{
+			int tmp = i;
+			i = j;
+			j = tmp;
+		}
+		for (int l = i + 1, r = j; l < r; l++, r--)
+		{
+			int tmp = this.path [l];
+			this.path [l] = this.path [r];
+			this.path [r] = tmp;
+		}
+	}
+	
+	/**
+	 * Échange les "villes" aux positions i et j (voir Evaluation.deltaSwap)
+	 * @param i Position d'une "ville"
+	 * @param j Position d'une autre "ville"
+	 */
+	public void swap (int i, int j)
+	{
+		int tmp = this.path [i];
+		this.path [i] = this.path [j];
+		this.path [j] = tmp;
+	}
+	
+	/**
+	 * Or-opt : déplace un segment après une autre "ville" (voir Evaluation.deltaOrOpt)
+	 * @param segStart Position de la première "ville" du segment
+	 * @param segLen Nombre de "villes" du segment
+	 * @param insertPos Position, en dehors du segment, de la "ville" après laquelle le segment est inséré
+	 * @param reversed Indique si le segment est inséré à l'envers
+	 */
+	public void orOpt (int segStart, int segLen, int insertPos, boolean reversed)
+	{
+		// Sans allocation : le segment S et les "villes" B qu'il franchit sont permutés par retournements
+		// (S B -> B' S' -> B S, ou B S -> S' B' -> S B), S restant retourné si demandé
+		int n = this.path.length;
+		int segEnd = (segStart + segLen - 1) % n;
+		int forward = (insertPos - segEnd + n) % n;
+		int backward = (segStart - 1 - insertPos + n) % n;
+		if (forward <= backward)
+		{
+			this.reverse (segStart, segLen + forward);
+			this.reverse (segStart, forward);
+			if (!reversed)
+				this.reverse ((segStart + forward) % n, segLen);
+		}
+		else
+		{
+			int start = (insertPos + 1) % n;
+			this.reverse (start, backward + segLen);
+			if (!reversed)
+				this.reverse (start, segLen);
+			this.reverse ((start + segLen) % n, backward);
+		}
+	}
+	
+	/**
+	 * Retourne sur place la portion circulaire de length "villes" commençant à la position start
+	 */
+	private void reverse (int start, int length)
+	{
+		int n = this.path.length;
+		for (int l = start, r = (start + length - 1) % n, k = length / 2; k > 0; k--)
+		{
+			int tmp = this.path [l];
+			this.path [l] = this.path [r];
+			this.path [r] = tmp;
+			if (++l == n)
+				l = 0;
+			if (--r < 0)
+				r = n - 1;
+		}
+	}
+	
+	/**
+	 * Mouvement 3-opt sans inversion : échange les portions [i + 1, j] et [j + 1, k] (voir Evaluation.delta3Opt)
+	 * @param i Position de la première arête supprimée, avec i &lt; j &lt; k
+	 * @param j Position de la deuxième arête supprimée
+	 * @param k Position de la troisième arête supprimée
+	 */
+	public void threeOpt (int i, int j, int k)
+	{
+		// Sans allocation : A B -> B' A' -> B A
+		this.reverse (i + 1, k - i);
+		this.reverse (i + 1, k - j);
+		this.reverse (i + 1 + k - j, j - i);
+	}
+	
 	@Override
 	public String toString ()
 	{
@@ -1,11 +1,11 @@
 package tsp.evaluation;
 
-import java.io.BufferedReader;
 import java.io.File;
-import java.io.FileReader;
+import java.nio.DoubleBuffer;
 import java.util.ArrayList;
 import java.util.Arrays;
-import java.util.StringTokenizer;
+import java.util.TreeMap;
+import java.util.function.Predicate;
 
 /**
  * @author Alexandre Blansché
@@ -17,51 +17,129 @@ public final class Problem
     private static final String directory = "data";
     private String name;
 	private int length;
-	private double [][] data;
+	private double [] xs;
+	private double [] ys;
+	private DistanceCache distances;
+	private final TreeMap <Integer, NeighbourLists> neighbourLists = new TreeMap <Integer, NeighbourLists> ();
+	private KdTree kdTree;
+	private ProblemCache cache;
+	private DistanceKernel kernel;
     
     /**
+     * Lit tous les problèmes disponibles (en parallèle)
      * @return La liste des problèmes disponibles
      */
     public static ArrayList <Problem> getProblems ()
+    {
+        ArrayList <ProblemHandle> handles = Problem.getHandles ();
+        ProblemHandle.preload (handles);
+        ArrayList <Problem> problems = new ArrayList <Problem> ();
+        for (ProblemHandle handle: handles)
+            problems.add (handle.get ());
+        return problems;
+    }
+
+    /**
+     * Liste les problèmes disponibles sans les lire
+     * @return Les problèmes, triés par nom de fichier
+     */
+    public static ArrayList <ProblemHandle> getHandles ()
+    {
+        return Problem.getHandles (handle -> true);
+    }
+
+    /**
+     * Liste les problèmes disponibles sans les lire
+     * @param filter Filtre sur les problèmes (par exemple ProblemHandle.named ou ProblemHandle.maxFileSize)
+     * @return Les problèmes retenus, triés par nom de fichier
+     */
+    public static ArrayList <ProblemHandle> getHandles (Predicate <ProblemHandle> filter)
     {
         File directory = new File (Problem.directory);
         File [] files = directory.listFiles ();
         Arrays.sort(files);
-        ArrayList <Problem> problems = new ArrayList <Problem> ();
+        ArrayList <ProblemHandle> handles = new ArrayList <ProblemHandle> ();
         for (File file: files)
-            problems.add (new Problem (file.getAbsolutePath ()));
-        return problems;
+        {
+            // Seuls les fichiers ordinaires sont des problèmes (pas le répertoire de cache)
+            if (!file.isFile () || file.isHidden ())
+                continue;
+            ProblemHandle handle = new ProblemHandle (file);
+            if (filter.test (handle))
+                handles.add (handle);
+        }
+        return handles;
     }
 
-	private Problem (String filename)
-	{
+    /**
+     * @param filename Chemin d'un fichier de problème
+     * @return Le nom du problème (nom du fichier sans extension)
+     */
+    static String nameOf (String filename)
+    {
 	    String [] parts = filename.split ("/|\\.");
-	    this.name = parts [parts.length - 2];
-		this.length = 0;
+	    return parts [parts.length - 2];
+    }
+
+	Problem (String filename)
+	{
+		this (filename, true);
+	}
+
+	/**
+	 * @param filename Chemin d'un fichier de problème
+	 * @param cached Indique s'il faut passer par le fichier binaire du répertoire de cache (faux pour
+	 * un fichier temporaire, qui n'y laisserait qu'un fichier binaire inutile)
+	 */
+	Problem (String filename, boolean cached)
+	{
+	    this.name = Problem.nameOf (filename);
+	    File file = new File (filename);
 		try
 		{
-			BufferedReader in = new BufferedReader (new FileReader (new File (filename)));
-			String line = null;
-			while ((line = in.readLine ()) != null)
-				this.length++;
-			this.data = new double [this.length][2];in = new BufferedReader (new FileReader (new File (filename)));
-			int row = 0;
-			while ((line = in.readLine ()) != null)
+			if (TsplibLoader.isTsplib (file))
 			{
-				StringTokenizer tokenizer = new StringTokenizer (line);
-				int column = 0;
-				while (tokenizer.hasMoreElements ())
+				// Format TSPLIB : pas de fichier binaire (il ne décrit que des coordonnées euclidiennes)
+				TsplibLoader loader = TsplibLoader.read (file);
+				this.length = loader.getLength ();
+				this.xs = loader.getXs ();
+				this.ys = loader.getYs ();
+				this.kernel = loader.getKernel ();
+			}
+			else
+			{
+				this.cache = cached ? new ProblemCache (file, this.name) : null;
+				if (this.cache != null && this.cache.read ())
+				{
+					this.length = this.cache.getLength ();
+					this.xs = this.cache.getXs ();
+					this.ys = this.cache.getYs ();
+					NeighbourLists lists = this.cache.getNeighbourLists ();
+					if (lists != null)
+						this.neighbourLists.put (lists.getK (), lists);
+				}
+				else
 				{
-					this.data [row][column] = Double.parseDouble (tokenizer.nextToken ());
-					column++;
+					ProblemLoader loader = ProblemLoader.read (file);
+					this.length = loader.getLength ();
+					this.xs = loader.getXs ();
+					this.ys = loader.getYs ();
+					if (this.cache != null)
+						this.cache.write (this, null);
 				}
-				row++;
+				this.kernel = DistanceKernel.exact (this.xs, this.ys);
 			}
 		}
 		catch (Exception e)
 		{
 			e.printStackTrace();
+			this.length = 0;
+			this.xs = new double [0];
+			this.ys = new double [0];
+			this.cache = null;
+			this.kernel = DistanceKernel.exact (this.xs, this.ys);
 		}
+		this.distances = DistanceCache.create (this);
 	}
 	
 	/**
@@ -84,7 +162,122 @@ public final class Problem
 	 */
 	public Coordinates getCoordinates (int index)
 	{
-		return new Coordinates (this.data [index][0], this.data [index][1]);
+		return new Coordinates (this.xs [index], this.ys [index]);
+	}
+	
+	/**
+	 * Accès sans allocation à l'abscisse d'une "ville"
+	 * @param index L'indice d'une "ville"
+	 * @return L'abscisse de la "ville"
+	 */
+	public double getX (int index)
+	{
+		return this.xs [index];
+	}
+	
+	/**
+	 * Accès sans allocation à l'ordonnée d'une "ville"
+	 * @param index L'indice d'une "ville"
+	 * @return L'ordonnée de la "ville"
+	 */
+	public double getY (int index)
+	{
+		return this.ys [index];
+	}
+	
+	/**
+	 * @return Vue en lecture seule (sans copie) des abscisses
+	 */
+	public DoubleBuffer getXs ()
+	{
+		return DoubleBuffer.wrap (this.xs).asReadOnlyBuffer ();
+	}
+	
+	/**
+	 * @return Vue en lecture seule (sans copie) des ordonnées
+	 */
+	public DoubleBuffer getYs ()
+	{
+		return DoubleBuffer.wrap (this.ys).asReadOnlyBuffer ();
+	}
+
+	/**
+	 * Distance entre deux "villes", lue dans le cache partagé par toutes les exécutions sur ce problème
+	 * @param i L'indice d'une "ville"
+	 * @param j L'indice d'une autre "ville"
+	 * @return La distance entre les deux "villes"
+	 */
+	public double distance (int i, int j)
+	{
+		return this.distances.distance (i, j);
+	}
+	
+	/**
+	 * @param i L'indice d'une "ville"
+	 * @return Les distances de la "ville" à toutes les autres (tableau partagé, à ne pas modifier, sauf
+	 * pour les grandes instances où il est calculé à chaque appel)
+	 */
+	public double [] getDistances (int i)
+	{
+		return this.distances.getRow (i);
+	}
+	
+	/**
+	 * Index spatial des "villes", construit une seule fois par problème et partagé
+	 * @return L'arbre k-d des coordonnées
+	 */
+	public synchronized KdTree getKdTree ()
+	{
+		if (this.kdTree == null)
+			this.kdTree = new KdTree (this);
+		return this.kdTree;
+	}
+	
+	/**
+	 * Listes des plus proches voisins, calculées une seule fois par problème et partagées
+	 * @param k Nombre de voisins par "ville"
+	 * @return Les listes des k plus proches voisins
+	 */
+	public synchronized NeighbourLists getNeighbourLists (int k)
+	{
+		k = Math.min (k, this.length - 1);
+		NeighbourLists lists = this.neighbourLists.get (k);
+		if (lists == null)
+		{
+			Integer larger = this.neighbourLists.higherKey (k);
+			if (larger != null)
+				lists = this.neighbourLists.get (larger).truncate (k);
+			else
+			{
+				lists = NeighbourLists.compute (this, k);
+				// Les plus longues listes calculées sont conservées dans le fichier binaire (hors du temps de l'appelant)
+				if (this.cache != null)
+					this.cache.writeLater (this, lists);
+			}
+			this.neighbourLists.put (k, lists);
+		}
+		return lists;
+	}
+	
+	double computeDistance (int i, int j)
+	{
+		return this.kernel.distance (i, j);
+	}
+	
+	/**
+	 * @return Indique si les plus proches voisins peuvent être cherchés dans l'arbre k-d
+	 */
+	boolean isEuclidean ()
+	{
+		return this.kernel.isEuclidean ();
+	}
+	
+	/**
+	 * @return Le type de distance (EXACT pour le format "x y", sinon le type TSPLIB)
+	 */
+	public String getDistanceType ()
+	{
+		return this.kernel.getName ();
 	}
 
 	/**
@@ -96,15 +289,17 @@ public final class Problem
 	}	
 
 	/**
+	 * Attention, cette méthode alloue une copie complète : préférer getX, getY, getXs et getYs
 	 * @return Une copie du tableau des coordonnées
 	 */
 	public double [][] getData ()
 	{
-		double [][] data;
-		data = new double [this.data.length][this.data [0].length];
-		for (int i = 0; i < data.length; i++)
-			for (int j = 0; j < this.data [0].length; j++)
-				data [i][j] = this.data [i][j];
+		double [][] data = new double [this.length][2];
+		for (int i = 0; i < this.length; i++)
+		{
+			data [i][0] = this.xs [i];
+			data [i][1] = this.ys [i];
+		}
 		return data;
 	}	
 }
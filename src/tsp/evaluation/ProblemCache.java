@@ -0,0 +1,224 @@
+package tsp.evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.IntBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.zip.CRC32C;
+
+/**
+ * @author Alexandre Blansché
+ * Version binaire d'un problème (fichier .tspbin du répertoire de cache), identifiée par l'empreinte CRC32C
+ * du fichier texte : coordonnées, et éventuellement listes de plus proches voisins
+ * Le fichier est projeté en mémoire en lecture seule, et son contenu recopié dans le tas : les noyaux
+ * de distance et les listes de voisins travaillent sur des tableaux, plus rapides dans les boucles internes
+ * que des vues sur la projection
+ * Il est réécrit par renommage atomique, si bien que plusieurs processus peuvent le lire et le mettre
+ * à jour sans se gêner ; les réécritures demandées pendant une exécution se font en arrière-plan
+ * Le cache est facultatif : toute erreur de lecture ou d'écriture revient à l'ignorer
+ * Format (petit-boutiste) : magic, version, empreinte, taille du texte, n, k, abscisses, ordonnées, voisins
+ */
+final class ProblemCache
+{
+	/**
+	 * Répertoire des fichiers binaires
+	 */
+	static final String DIRECTORY = "data/cache";
+	private static final String EXTENSION = ".tspbin";
+	private static final int MAGIC = 0x4E425354;
+	private static final int VERSION = 1;
+	private static final int HEADER = 32;
+	private static final int CHUNK = 1 << 16;
+	private static final ExecutorService WRITER = Executors.newSingleThreadExecutor (ProblemCache::newWriter);
+
+	private final File file;
+	private final long checksum;
+	private final long sourceSize;
+	private int length;
+	private double [] xs;
+	private double [] ys;
+	private int [][] neighbours;
+
+	/**
+	 * Constructeur : calcule l'empreinte du fichier texte
+	 * @param source Le fichier texte du problème
+	 * @param name Le nom du problème
+	 * @throws IOException En cas d'erreur de lecture du fichier texte
+	 */
+	ProblemCache (File source, String name) throws IOException
+	{
+		this.file = new File (ProblemCache.DIRECTORY, name + ProblemCache.EXTENSION);
+		CRC32C crc = new CRC32C ();
+		try (FileChannel channel = FileChannel.open (source.toPath (), StandardOpenOption.READ))
+		{
+			this.sourceSize = channel.size ();
+			long window = Integer.MAX_VALUE;
+			for (long start = 0; start < this.sourceSize; start += window)
+				crc.update (channel.map (FileChannel.MapMode.READ_ONLY, start, Math.min (window, this.sourceSize - start)));
+		}
+		this.checksum = crc.getValue ();
+	}
+
+	/**
+	 * Lit le fichier binaire s'il existe et correspond au fichier texte
+	 * @return Indique si la lecture a réussi
+	 */
+	boolean read ()
+	{
+		if (!this.file.isFile ())
+			return false;
+		try (FileChannel channel = FileChannel.open (this.file.toPath (), StandardOpenOption.READ))
+		{
+			long size = channel.size ();
+			if (size < ProblemCache.HEADER)
+				return false;
+			MappedByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, 0, size);
+			buffer.order (ByteOrder.LITTLE_ENDIAN);
+			if (buffer.getInt (0) != ProblemCache.MAGIC || buffer.getInt (4) != ProblemCache.VERSION
+					|| buffer.getLong (8) != this.checksum || buffer.getLong (16) != this.sourceSize)
+				return false;
+			int length = buffer.getInt (24);
+			int k = buffer.getInt (28);
+			if (size != ProblemCache.HEADER + 16L * length + 4L * length * k)
+				return false;
+			this.length = length;
+			this.xs = new double [length];
+			this.ys = new double [length];
+			buffer.position (ProblemCache.HEADER);
+			buffer.asDoubleBuffer ().get (this.xs);
+			buffer.position (ProblemCache.HEADER + 8 * length);
+			buffer.asDoubleBuffer ().get (this.ys);
+			if (k > 0)
+			{
+				buffer.position (ProblemCache.HEADER + 16 * length);
+				IntBuffer ints = buffer.asIntBuffer ();
+				this.neighbours = new int [length][k];
+				for (int i = 0; i < length; i++)
+					ints.get (this.neighbours [i]);
+			}
+			return true;
+		}
+		catch (IOException | RuntimeException e)
+		{
+			return false;
+		}
+	}
+
+	/**
+	 * @return Le nombre de "villes" lu
+	 */
+	int getLength ()
+	{
+		return this.length;
+	}
+
+	/**
+	 * @return Les abscisses lues
+	 */
+	double [] getXs ()
+	{
+		return this.xs;
+	}
+
+	/**
+	 * @return Les ordonnées lues
+	 */
+	double [] getYs ()
+	{
+		return this.ys;
+	}
+
+	/**
+	 * @return Les listes de voisins lues (null si le fichier n'en contient pas)
+	 */
+	NeighbourLists getNeighbourLists ()
+	{
+		return this.neighbours == null ? null : new NeighbourLists (this.neighbours [0].length, this.neighbours);
+	}
+
+	/**
+	 * Écrit (ou remplace) le fichier binaire en arrière-plan, par un thread qui n'appartient à aucune
+	 * exécution : le temps de l'écriture n'est pas compté dans leur budget
+	 * Le problème doit rester inchangé (c'est le cas : ses coordonnées ne sont jamais modifiées)
+	 * @param problem Le problème
+	 * @param lists Listes de voisins à enregistrer (peut être null)
+	 */
+	void writeLater (Problem problem, NeighbourLists lists)
+	{
+		ProblemCache.WRITER.execute (() -> this.write (problem, lists));
+	}
+
+	private static Thread newWriter (Runnable runnable)
+	{
+		ThreadGroup group = Thread.currentThread ().getThreadGroup ();
+		while (group.getParent () != null)
+			group = group.getParent ();
+		Thread thread = new Thread (group, runnable, "tspbin-writer");
+		thread.setDaemon (true);
+		return thread;
+	}
+
+	/**
+	 * Écrit (ou remplace) le fichier binaire
+	 * @param problem Le problème
+	 * @param lists Listes de voisins à enregistrer (peut être null)
+	 */
+	void write (Problem problem, NeighbourLists lists)
+	{
+		int length = problem.getLength ();
+		int k = lists == null || length == 0 ? 0 : lists.getK ();
+		File directory = this.file.getParentFile ();
+		File temporary = null;
+		try
+		{
+			directory.mkdirs ();
+			temporary = File.createTempFile (this.file.getName (), ".tmp", directory);
+			// Une écriture en arrière-plan peut être coupée par la fin du programme
+			temporary.deleteOnExit ();
+			try (FileChannel channel = FileChannel.open (temporary.toPath (), StandardOpenOption.WRITE))
+			{
+				ByteBuffer buffer = ByteBuffer.allocateDirect (ProblemCache.CHUNK).order (ByteOrder.LITTLE_ENDIAN);
+				buffer.putInt (ProblemCache.MAGIC).putInt (ProblemCache.VERSION);
+				buffer.putLong (this.checksum).putLong (this.sourceSize);
+				buffer.putInt (length).putInt (k);
+				for (int i = 0; i < length; i++)
+					ProblemCache.flush (channel, buffer, Double.BYTES).putDouble (problem.getX (i));
+				for (int i = 0; i < length; i++)
+					ProblemCache.flush (channel, buffer, Double.BYTES).putDouble (problem.getY (i));
+				for (int i = 0; i < length && k > 0; i++)
+					for (int neighbour: lists.get (i))
+						ProblemCache.flush (channel, buffer, Integer.BYTES).putInt (neighbour);
+				ProblemCache.flush (channel, buffer, ProblemCache.CHUNK);
+			}
+			Files.move (temporary.toPath (), this.file.toPath (), StandardCopyOption.REPLACE_EXISTING, StandardCopyOption.ATOMIC_MOVE);
+		}
+		catch (IOException | RuntimeException e)
+		{
+			if (temporary != null)
+				temporary.delete ();
+		}
+	}
+
+	/**
+	 * Vide le tampon dans le fichier s'il reste moins de bytes octets libres
+	 */
+	private static ByteBuffer flush (FileChannel channel, ByteBuffer buffer, int bytes) throws IOException
+	{
+		if (buffer.remaining () < bytes)
+		{
+			buffer.flip ();
+			while (buffer.hasRemaining ())
+				channel.write (buffer);
+			buffer.clear ();
+		}
+		return buffer;
+	}
+}
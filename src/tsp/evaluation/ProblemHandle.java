@@ -0,0 +1,108 @@
+package tsp.evaluation;
+
+import java.io.File;
+import java.util.Collection;
+import java.util.function.Predicate;
+
+/**
+ * @author Alexandre Blansché
+ * Problème référencé par son fichier, lu seulement à la première utilisation
+ * Le nom et la taille du fichier sont connus sans lecture, ce qui permet de filtrer les problèmes à bas coût
+ */
+public final class ProblemHandle
+{
+	private final File file;
+	private final String name;
+	private volatile Problem problem;
+
+	ProblemHandle (File file)
+	{
+		this.file = file;
+		this.name = Problem.nameOf (file.getAbsolutePath ());
+	}
+
+	/**
+	 * @return Le nom du problème
+	 */
+	public String getName ()
+	{
+		return this.name;
+	}
+
+	/**
+	 * @return La taille du fichier, en octets
+	 */
+	public long getFileSize ()
+	{
+		return this.file.length ();
+	}
+
+	/**
+	 * @return Indique si le problème a déjà été lu
+	 */
+	public boolean isLoaded ()
+	{
+		return this.problem != null;
+	}
+
+	/**
+	 * Lit le problème à la première demande (une seule fois, même en cas d'appels concurrents)
+	 * @return Le problème
+	 */
+	public Problem get ()
+	{
+		Problem problem = this.problem;
+		if (problem == null)
+		{
+			synchronized (this)
+			{
+				problem = this.problem;
+				if (problem == null)
+				{
+					problem = new Problem (this.file.getAbsolutePath ());
+					this.problem = problem;
+				}
+			}
+		}
+		return problem;
+	}
+
+	@Override
+	public String toString ()
+	{
+		return this.problem == null ? this.name : this.problem.toString ();
+	}
+
+	/**
+	 * Lit en parallèle les problèmes qui ne l'ont pas encore été, et attend la fin des lectures
+	 * @param handles Les problèmes à lire
+	 */
+	public static void preload (Collection <ProblemHandle> handles)
+	{
+		handles.parallelStream ().forEach (ProblemHandle::get);
+	}
+
+	/**
+	 * @param names Noms de problèmes
+	 * @return Filtre qui ne garde que les problèmes nommés
+	 */
+	public static Predicate <ProblemHandle> named (String... names)
+	{
+		return handle ->
+		{
+			for (String name: names)
+				if (name.equals (handle.name))
+					return true;
+			return false;
+		};
+	}
+
+	/**
+	 * @param bytes Taille maximale
+	 * @return Filtre qui ne garde que les problèmes dont le fichier ne dépasse pas la taille donnée
+	 */
+	public static Predicate <ProblemHandle> maxFileSize (long bytes)
+	{
+		return handle -> handle.getFileSize () <= bytes;
+	}
+}
@@ -0,0 +1,259 @@
+package tsp.evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * @author Alexandre Blansché
+ * Lecture d'un fichier de problème en une seule passe : le fichier est projeté en mémoire
+ * et les nombres sont analysés directement depuis les octets, dans des tableaux qui s'agrandissent
+ * Chaque ligne (même vide) est une "ville" : premier nombre pour l'abscisse, second pour l'ordonnée,
+ * 0 pour une valeur absente ; les nombres suivants sont ignorés
+ * Les décimaux usuels sont convertis exactement (arrondi correct) sans passer par une chaîne,
+ * les autres écritures sont confiées à Double.parseDouble
+ */
+final class ProblemLoader
+{
+	private static final long WINDOW = 1L << 30;
+	private static final int CHUNK = 1 << 16;
+	private static final int INITIAL_CAPACITY = 1024;
+	private static final long MAX_MANTISSA = 1L << 53;
+	private static final double [] POWERS = {
+		1e0, 1e1, 1e2, 1e3, 1e4, 1e5, 1e6, 1e7, 1e8, 1e9, 1e10, 1e11,
+		1e12, 1e13, 1e14, 1e15, 1e16, 1e17, 1e18, 1e19, 1e20, 1e21, 1e22};
+
+	private double [] xs;
+	private double [] ys;
+	private int length;
+	private byte [] token;
+	private int tokenLength;
+	private int column;
+	private boolean pending;
+	private boolean carriageReturn;
+
+	private ProblemLoader (long size)
+	{
+		// Estimation grossière du nombre de lignes (environ 12 octets par ligne)
+		int capacity = (int) Math.min (Integer.MAX_VALUE - 8, Math.max (ProblemLoader.INITIAL_CAPACITY, size / 12));
+		this.xs = new double [capacity];
+		this.ys = new double [capacity];
+		this.token = new byte [64];
+	}
+
+	/**
+	 * Lit un fichier de problème
+	 * @param file Le fichier
+	 * @return Le chargeur, qui donne accès aux coordonnées lues
+	 * @throws IOException En cas d'erreur de lecture
+	 * @throws NumberFormatException Si un nombre est mal écrit
+	 */
+	static ProblemLoader read (File file) throws IOException
+	{
+		try (FileChannel channel = FileChannel.open (file.toPath (), StandardOpenOption.READ))
+		{
+			long size = channel.size ();
+			ProblemLoader loader = new ProblemLoader (size);
+			byte [] chunk = new byte [ProblemLoader.CHUNK];
+			for (long start = 0; start < size; start += ProblemLoader.WINDOW)
+			{
+				int window = (int) Math.min (ProblemLoader.WINDOW, size - start);
+				MappedByteBuffer buffer = channel.map (FileChannel.MapMode.READ_ONLY, start, window);
+				// Copie par blocs : la boucle d'analyse travaille sur un tableau
+				for (int from = 0; from < window; from += ProblemLoader.CHUNK)
+				{
+					int count = Math.min (ProblemLoader.CHUNK, window - from);
+					buffer.get (from, chunk, 0, count);
+					loader.scan (chunk, count);
+				}
+			}
+			if (loader.pending)
+				loader.endLine ();
+			return loader;
+		}
+	}
+
+	/**
+	 * @return Le nombre de "villes"
+	 */
+	int getLength ()
+	{
+		return this.length;
+	}
+
+	/**
+	 * @return Les abscisses (tableau à la taille exacte)
+	 */
+	double [] getXs ()
+	{
+		return this.xs.length == this.length ? this.xs : Arrays.copyOf (this.xs, this.length);
+	}
+
+	/**
+	 * @return Les ordonnées (tableau à la taille exacte)
+	 */
+	double [] getYs ()
+	{
+		return this.ys.length == this.length ? this.ys : Arrays.copyOf (this.ys, this.length);
+	}
+
+	private void scan (byte [] chunk, int count)
+	{
+		for (int i = 0; i < count; i++)
+		{
+			byte b = chunk [i];
+			if (b == '\n')
+			{
+				// Fin de ligne, sauf si elle suit directement un '\r' (fin de ligne "\r\n")
+				if (!this.carriageReturn)
+					this.endLine ();
+				this.pending = false;
+				this.carriageReturn = false;
+			}
+			else if (b == '\r')
+			{
+				this.endLine ();
+				this.pending = false;
+				this.carriageReturn = true;
+			}
+			else
+			{
+				this.carriageReturn = false;
+				this.pending = true;
+				if (b == ' ' || b == '\t' || b == '\f')
+					this.endToken ();
+				else
+					this.append (b);
+			}
+		}
+	}
+
+	private void append (byte b)
+	{
+		if (this.column >= 2)
+			return;
+		if (this.tokenLength == this.token.length)
+			this.token = Arrays.copyOf (this.token, 2 * this.token.length);
+		this.token [this.tokenLength++] = b;
+	}
+
+	private void endToken ()
+	{
+		if (this.tokenLength == 0)
+			return;
+		if (this.length == this.xs.length)
+		{
+			int capacity = this.length + (this.length >> 1) + 1;
+			this.xs = Arrays.copyOf (this.xs, capacity);
+			this.ys = Arrays.copyOf (this.ys, capacity);
+		}
+		double value = ProblemLoader.parse (this.token, 0, this.tokenLength);
+		if (this.column == 0)
+			this.xs [this.length] = value;
+		else
+			this.ys [this.length] = value;
+		this.column++;
+		this.tokenLength = 0;
+	}
+
+	private void endLine ()
+	{
+		this.endToken ();
+		if (this.length == this.xs.length)
+		{
+			int capacity = this.length + (this.length >> 1) + 1;
+			this.xs = Arrays.copyOf (this.xs, capacity);
+			this.ys = Arrays.copyOf (this.ys, capacity);
+		}
+		// Valeurs absentes : 0 (les cases ont pu servir avant un agrandissement, on les remet à zéro)
+		if (this.column < 1)
+			this.xs [this.length] = 0;
+		if (this.column < 2)
+			this.ys [this.length] = 0;
+		this.length++;
+		this.column = 0;
+	}
+
+	/**
+	 * Conversion exacte d'un décimal [signe] chiffres [. chiffres] [(e|E) [signe] chiffres]
+	 * lorsque la mantisse tient sur 53 bits et que l'exposant est au plus 22 en valeur absolue
+	 * (un seul produit ou quotient de deux doubles exacts : arrondi correct)
+	 * @param token Octets contenant le nombre
+	 * @param start Début du nombre
+	 * @param end Fin du nombre (exclue)
+	 * @return La valeur
+	 * @throws NumberFormatException Si le nombre est mal écrit
+	 */
+	static double parse (byte [] token, int start, int end)
+	{
+		int i = start;
+		boolean negative = false;
+		if (token [i] == '-' || token [i] == '+')
+		{
+			negative = token [i] == '-';
+			i++;
+		}
+		long mantissa = 0;
+		int exponent = 0;
+		int digits = 0;
+		boolean point = false;
+		for (; i < end; i++)
+		{
+			int c = token [i];
+			if (c >= '0' && c <= '9')
+			{
+				digits++;
+				if (mantissa >= ProblemLoader.MAX_MANTISSA)
+					return ProblemLoader.fallback (token, start, end);
+				mantissa = 10 * mantissa + (c - '0');
+				if (point)
+					exponent--;
+			}
+			else if (c == '.' && !point)
+				point = true;
+			else
+				break;
+		}
+		if (digits == 0)
+			return ProblemLoader.fallback (token, start, end);
+		if (i < end)
+		{
+			if (token [i] != 'e' && token [i] != 'E')
+				return ProblemLoader.fallback (token, start, end);
+			i++;
+			boolean negativeExponent = false;
+			if (i < end && (token [i] == '-' || token [i] == '+'))
+				negativeExponent = token [i++] == '-';
+			if (i == end)
+				return ProblemLoader.fallback (token, start, end);
+			int value = 0;
+			for (; i < end; i++)
+			{
+				int c = token [i];
+				if (c < '0' || c > '9' || value > 1000)
+					return ProblemLoader.fallback (token, start, end);
+				value = 10 * value + (c - '0');
+			}
+			exponent += negativeExponent ? -value : value;
+		}
+		double result;
+		if (mantissa == 0)
+			result = 0;
+		else if (mantissa > ProblemLoader.MAX_MANTISSA || exponent < -22 || exponent > 22)
+			return ProblemLoader.fallback (token, start, end);
+		else if (exponent < 0)
+			result = mantissa / ProblemLoader.POWERS [-exponent];
+		else
+			result = mantissa * ProblemLoader.POWERS [exponent];
+		return negative ? -result : result;
+	}
+
+	private static double fallback (byte [] token, int start, int end)
+	{
+		return Double.parseDouble (new String (token, start, end - start, StandardCharsets.ISO_8859_1));
+	}
+}
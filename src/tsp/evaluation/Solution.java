@@ -5,6 +5,8 @@ import java.util.ArrayList;
 /**
  * @author Alexandre Blansché
  * Solution au problème TSP : nom de la méthode, auteurs, bom du problème, évaluation de la solution
+ * et, pour une exécution, statistiques de l'évaluation
+ * Une exécution échouée est comptée comme une solution pénalisée (voir Solution.failed)
  */
 public final class Solution implements Comparable <Solution>
 {
@@ -12,6 +14,8 @@ public final class Solution implements Comparable <Solution>
     private ArrayList <String> authors;
     private String problemName;
     private double evaluation;
+    private EvaluationStatistics statistics;
+    private boolean failed;
 
     /**
      * Constructeur
@@ -21,28 +25,73 @@ public final class Solution implements Comparable <Solution>
      * @param evaluation Évaluation de la solution
      */
     public Solution (ArrayList <String> authors, String name, String problemName, double evaluation)
+    {
+        this (authors, name, problemName, evaluation, null);
+    }
+
+    /**
+     * Constructeur
+     * @param authors Liste des auteurs
+     * @param name Nom de la méthode
+     * @param problemName Nom du problème
+     * @param evaluation Évaluation de la solution
+     * @param statistics Statistiques de l'évaluation (peut être null)
+     */
+    public Solution (ArrayList <String> authors, String name, String problemName, double evaluation, EvaluationStatistics statistics)
     {
         this.authors = authors;
         this.name = name;
         this.problemName = problemName;
         this.evaluation = evaluation;
+        this.statistics = statistics;
     }
 
     /**
      * Constructeur : moyenne sur plusieurs évaluations
+     * Le nom et les auteurs sont ceux de la première solution qui n'est pas un échec, s'il y en a une
      * @param solutions Liste de solutions
+     * @throws IllegalArgumentException Si la liste est vide
      */
     public Solution (ArrayList <Solution> solutions)
     {
-        this.authors = solutions.get (0).authors;
-        this.name = solutions.get (0).name;
-        this.problemName = solutions.get (0).problemName;
+        if (solutions.isEmpty ())
+            throw new IllegalArgumentException ("Aucune solution à moyenner");
+        Solution first = solutions.get (0);
+        for (Solution solution: solutions)
+            if (!solution.failed)
+            {
+                first = solution;
+                break;
+            }
+        this.authors = first.authors;
+        this.name = first.name;
+        this.problemName = first.problemName;
+        this.failed = first.failed;
         this.evaluation = 0;
         for (Solution solution : solutions)
             this.evaluation += solution.evaluation;
         this.evaluation /= solutions.size ();
     }
 
+    /**
+     * Exécution échouée (exception, thread bloqué, machine virtuelle fille tuée) : solution pénalisée,
+     * évaluée comme le chemin trivial qui visite les "villes" dans l'ordre du problème
+     * Elle reste comptée dans les moyennes, qui ne portent donc jamais sur les seules exécutions réussies
+     * @param name Nom de la méthode (celui de sa classe : le projet n'a pas forcément pu être créé)
+     * @param problem Le problème
+     * @return La solution pénalisée
+     */
+    public static Solution failed (String name, Problem problem)
+    {
+        int length = problem.getLength ();
+        double evaluation = 0;
+        for (int i = 0; i < length; i++)
+            evaluation += problem.distance (i, i == length - 1 ? 0 : i + 1);
+        Solution solution = new Solution (new ArrayList <String> (), name, problem.getName (), evaluation);
+        solution.failed = true;
+        return solution;
+    }
+
     private static void normalize (ArrayList <Solution> solutions)
     {
         double min = Double.MAX_VALUE;
@@ -73,6 +122,46 @@ public final class Solution implements Comparable <Solution>
         return agg;
     }
 
+    /**
+     * @return Le nom de la méthode
+     */
+    public String getName ()
+    {
+        return this.name;
+    }
+
+    /**
+     * @return La liste des auteurs
+     */
+    public ArrayList <String> getAuthors ()
+    {
+        return this.authors;
+    }
+
+    /**
+     * @return Le nom du problème
+     */
+    public String getProblemName ()
+    {
+        return this.problemName;
+    }
+
+    /**
+     * @return Les statistiques de l'évaluation (null pour une moyenne de solutions)
+     */
+    public EvaluationStatistics getStatistics ()
+    {
+        return this.statistics;
+    }
+
+    /**
+     * @return Indique si la solution est celle d'une exécution échouée (pour une moyenne : si toutes ont échoué)
+     */
+    public boolean isFailed ()
+    {
+        return this.failed;
+    }
+
     /**
      * @return L'évaluation de la solution
      */
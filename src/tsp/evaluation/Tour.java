@@ -0,0 +1,66 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Représentation d'une tournée modifiable sur place par les recherches locales
+ * Les mouvements sont exprimés sur les "villes", quel que soit le stockage
+ */
+public interface Tour
+{
+	/**
+	 * Copie un chemin dans la tournée
+	 * @param path Liste ordonnée des "villes"
+	 */
+	public void load (int [] path);
+
+	/**
+	 * Copie la tournée dans un chemin
+	 * @param path Tableau de destination
+	 */
+	public void store (int [] path);
+
+	/**
+	 * @return Nombre de "villes"
+	 */
+	public int size ();
+
+	/**
+	 * @param city Une "ville"
+	 * @return La "ville" suivante
+	 */
+	public int next (int city);
+
+	/**
+	 * @param city Une "ville"
+	 * @return La "ville" précédente
+	 */
+	public int prev (int city);
+
+	/**
+	 * @param a Une "ville"
+	 * @param b Une "ville"
+	 * @param c Une "ville"
+	 * @return Indique si b se trouve sur le chemin allant de a à c dans le sens de la tournée
+	 */
+	public boolean between (int a, int b, int c);
+
+	/**
+	 * Mouvement 2-opt : supprime les arêtes (a, b) et (c, d), ajoute (a, c) et (b, d)
+	 * b doit suivre a et d doit suivre c, dans un même sens de parcours (quelconque)
+	 * @param a Une "ville"
+	 * @param b Son voisin
+	 * @param c Une autre "ville"
+	 * @param d Son voisin
+	 */
+	public void twoOptMove (int a, int b, int c, int d);
+
+	/**
+	 * Or-opt : déplace le segment [first, last] entre u et v (v doit suivre u, tous deux hors du segment)
+	 * @param first Première "ville" du segment (dans le sens de la tournée)
+	 * @param last Dernière "ville" du segment
+	 * @param u "Ville" après laquelle le segment est inséré
+	 * @param v "Ville" qui suit u
+	 * @param reversed Indique si le segment est inséré à l'envers (u, last, ..., first, v)
+	 */
+	public void moveSegment (int first, int last, int u, int v, boolean reversed);
+}
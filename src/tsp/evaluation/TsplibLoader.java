@@ -0,0 +1,270 @@
+package tsp.evaluation;
+
+import java.io.File;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+
+/**
+ * @author Alexandre Blansché
+ * Lecture d'un fichier au format TSPLIB (problèmes symétriques) : en-tête "CLÉ : valeur",
+ * puis sections NODE_COORD_SECTION, EDGE_WEIGHT_SECTION et DISPLAY_DATA_SECTION
+ * Types de distance pris en charge : EUC_2D, CEIL_2D, GEO, ATT et EXPLICIT (tous les formats de matrice)
+ * Sans coordonnées (EXPLICIT sans DISPLAY_DATA_SECTION), les "villes" sont placées sur un cercle pour l'affichage
+ */
+final class TsplibLoader
+{
+	private final byte [] data;
+	private int position;
+	private int length;
+	private String type;
+	private String format;
+	private double [] xs;
+	private double [] ys;
+	private int [] weights;
+
+	private TsplibLoader (byte [] data)
+	{
+		this.data = data;
+	}
+
+	/**
+	 * Reconnaît un fichier TSPLIB à sa première ligne non vide, qui commence par un mot-clé en majuscules
+	 * (le format "x y" commence par un nombre, éventuellement Infinity ou NaN)
+	 * @param file Le fichier
+	 * @return Indique si le fichier est au format TSPLIB
+	 * @throws IOException En cas d'erreur de lecture
+	 */
+	static boolean isTsplib (File file) throws IOException
+	{
+		try (InputStream in = Files.newInputStream (file.toPath ()))
+		{
+			int c;
+			do
+				c = in.read ();
+			while (c == ' ' || c == '\t' || c == '\r' || c == '\n' || c == '\f');
+			int d = in.read ();
+			return c >= 'A' && c <= 'Z' && ((d >= 'A' && d <= 'Z') || d == '_');
+		}
+	}
+
+	/**
+	 * Lit un fichier TSPLIB
+	 * @param file Le fichier
+	 * @return Le chargeur, qui donne accès aux coordonnées et à la distance
+	 * @throws IOException En cas d'erreur de lecture
+	 * @throws IllegalArgumentException Si le fichier est mal formé ou décrit un problème non pris en charge
+	 */
+	static TsplibLoader read (File file) throws IOException
+	{
+		TsplibLoader loader = new TsplibLoader (Files.readAllBytes (file.toPath ()));
+		loader.parse ();
+		return loader;
+	}
+
+	/**
+	 * @return Le nombre de "villes"
+	 */
+	int getLength ()
+	{
+		return this.length;
+	}
+
+	/**
+	 * @return Les abscisses (latitudes pour GEO)
+	 */
+	double [] getXs ()
+	{
+		return this.xs;
+	}
+
+	/**
+	 * @return Les ordonnées (longitudes pour GEO)
+	 */
+	double [] getYs ()
+	{
+		return this.ys;
+	}
+
+	/**
+	 * @return La distance du problème
+	 */
+	DistanceKernel getKernel ()
+	{
+		if ("EXPLICIT".equals (this.type))
+			return DistanceKernel.explicit (this.weights);
+		return DistanceKernel.of (this.type, this.xs, this.ys);
+	}
+
+	private void parse ()
+	{
+		boolean coordinates = false;
+		String line;
+		while ((line = this.nextLine ()) != null)
+		{
+			line = line.trim ();
+			if (line.isEmpty ())
+				continue;
+			int colon = line.indexOf (':');
+			String key = (colon < 0 ? line : line.substring (0, colon)).trim ();
+			String value = colon < 0 ? "" : line.substring (colon + 1).trim ();
+			switch (key)
+			{
+				case "TYPE":
+					if (!value.equals ("TSP"))
+						throw new IllegalArgumentException ("Type de problème non pris en charge : " + value);
+					break;
+				case "DIMENSION":
+					this.length = Integer.parseInt (value);
+					break;
+				case "EDGE_WEIGHT_TYPE":
+					this.type = value;
+					break;
+				case "EDGE_WEIGHT_FORMAT":
+					this.format = value;
+					break;
+				case "NODE_COORD_SECTION":
+					this.readCoordinates ();
+					coordinates = true;
+					break;
+				case "DISPLAY_DATA_SECTION":
+					if (!coordinates)
+						this.readCoordinates ();
+					coordinates = true;
+					break;
+				case "EDGE_WEIGHT_SECTION":
+					this.readWeights ();
+					break;
+				case "FIXED_EDGES_SECTION":
+				case "TOUR_SECTION":
+					// Listes terminées par -1, sans intérêt ici
+					while (this.nextNumber () != -1)
+						;
+					break;
+				case "EOF":
+					return;
+				default:
+					// NAME, COMMENT, NODE_COORD_TYPE, DISPLAY_DATA_TYPE... : ignorés
+					break;
+			}
+		}
+		if (this.type == null)
+			throw new IllegalArgumentException ("EDGE_WEIGHT_TYPE manquant");
+		if ("EXPLICIT".equals (this.type) && this.weights == null)
+			throw new IllegalArgumentException ("EDGE_WEIGHT_SECTION manquante");
+		if (!coordinates)
+		{
+			if (!"EXPLICIT".equals (this.type))
+				throw new IllegalArgumentException ("NODE_COORD_SECTION manquante");
+			this.xs = new double [this.length];
+			this.ys = new double [this.length];
+			for (int i = 0; i < this.length; i++)
+			{
+				this.xs [i] = Math.cos (2 * Math.PI * i / this.length);
+				this.ys [i] = Math.sin (2 * Math.PI * i / this.length);
+			}
+		}
+	}
+
+	/**
+	 * Lignes "numéro x y", numéros de 1 à n
+	 */
+	private void readCoordinates ()
+	{
+		this.xs = new double [this.length];
+		this.ys = new double [this.length];
+		for (int i = 0; i < this.length; i++)
+		{
+			int city = (int) this.nextNumber () - 1;
+			this.xs [city] = this.nextNumber ();
+			this.ys [city] = this.nextNumber ();
+		}
+	}
+
+	/**
+	 * Lecture de la matrice dans l'ordre de son format ; seul le triangle inférieur est conservé
+	 * (un format par colonnes se lit comme le format par lignes du triangle opposé)
+	 */
+	private void readWeights ()
+	{
+		String format = this.format == null ? "FULL_MATRIX" : this.format;
+		boolean full = format.equals ("FULL_MATRIX");
+		boolean lower;
+		boolean diagonal;
+		switch (format)
+		{
+			case "FULL_MATRIX":
+			case "UPPER_ROW":
+			case "LOWER_COL":
+				lower = false;
+				diagonal = false;
+				break;
+			case "LOWER_ROW":
+			case "UPPER_COL":
+				lower = true;
+				diagonal = false;
+				break;
+			case "UPPER_DIAG_ROW":
+			case "LOWER_DIAG_COL":
+				lower = false;
+				diagonal = true;
+				break;
+			case "LOWER_DIAG_ROW":
+			case "UPPER_DIAG_COL":
+				lower = true;
+				diagonal = true;
+				break;
+			default:
+				throw new IllegalArgumentException ("Format de matrice non pris en charge : " + format);
+		}
+		int n = this.length;
+		this.weights = new int [(int) ((long) n * (n - 1) / 2)];
+		for (int i = 0; i < n; i++)
+		{
+			int from = full || lower ? 0 : (diagonal ? i : i + 1);
+			int to = full || !lower ? n - 1 : (diagonal ? i : i - 1);
+			for (int j = from; j <= to; j++)
+			{
+				int weight = (int) Math.round (this.nextNumber ());
+				if (i > j)
+					this.weights [(int) ((long) i * (i - 1) / 2) + j] = weight;
+				else if (j > i && !full)
+					this.weights [(int) ((long) j * (j - 1) / 2) + i] = weight;
+			}
+		}
+	}
+
+	private String nextLine ()
+	{
+		if (this.position >= this.data.length)
+			return null;
+		int start = this.position;
+		while (this.position < this.data.length && this.data [this.position] != '\n' && this.data [this.position] != '\r')
+			this.position++;
+		String line = new String (this.data, start, this.position - start, StandardCharsets.ISO_8859_1);
+		if (this.position < this.data.length && this.data [this.position] == '\r')
+			this.position++;
+		if (this.position < this.data.length && this.data [this.position] == '\n')
+			this.position++;
+		return line;
+	}
+
+	/**
+	 * Nombre suivant, quelle que soit la mise en lignes
+	 */
+	private double nextNumber ()
+	{
+		byte [] data = this.data;
+		int i = this.position;
+		while (i < data.length && (data [i] == ' ' || data [i] == '\t' || data [i] == '\r' || data [i] == '\n' || data [i] == '\f'))
+			i++;
+		int start = i;
+		while (i < data.length && data [i] != ' ' && data [i] != '\t' && data [i] != '\r' && data [i] != '\n' && data [i] != '\f')
+			i++;
+		this.position = i;
+		if (start == i)
+			throw new IllegalArgumentException ("Fin de fichier inattendue");
+		return ProblemLoader.parse (data, start, i);
+	}
+}
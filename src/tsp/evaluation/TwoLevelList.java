@@ -0,0 +1,459 @@
+package tsp.evaluation;
+
+/**
+ * @author Alexandre Blansché
+ * Tournée stockée dans une liste doublement chaînée à deux niveaux : les "villes" sont réparties
+ * en segments d'environ √n "villes", chacun muni d'un bit d'inversion
+ * next, prev et between sont en temps constant ; une inversion coûte O(√n) : le chemin à inverser
+ * est ramené à une suite de segments entiers (en déplaçant au plus un demi-segment à chaque bout),
+ * dont on inverse l'ordre et les bits
+ * Une instance n'est pas partagée entre threads
+ */
+public final class TwoLevelList implements Tour
+{
+	private final int length;
+	private final int group;
+	private final int nbSegments;
+	// Liens bruts dans le sens de stockage du segment : links [2 c] précédent, links [2 c + 1] suivant
+	// (seuls les liens internes à un segment sont utilisés)
+	private final int [] links;
+	private final int [] parent;
+	private final int [] rank;
+	private final boolean [] reversed;
+	private final int [] head;
+	private final int [] tail;
+	private final int [] size;
+	private final int [] offset;
+	private final int [] segmentPrev;
+	private final int [] segmentNext;
+	private final int [] order;
+	private final int [] buffer;
+	private int maxSize;
+
+	/**
+	 * Constructeur
+	 * @param length Nombre de "villes"
+	 */
+	public TwoLevelList (int length)
+	{
+		this.length = length;
+		this.group = Math.max (1, (int) Math.sqrt (length));
+		this.nbSegments = (length + this.group - 1) / this.group;
+		this.links = new int [2 * length];
+		this.parent = new int [length];
+		this.rank = new int [length];
+		this.reversed = new boolean [this.nbSegments];
+		this.head = new int [this.nbSegments];
+		this.tail = new int [this.nbSegments];
+		this.size = new int [this.nbSegments];
+		this.offset = new int [this.nbSegments];
+		this.segmentPrev = new int [this.nbSegments];
+		this.segmentNext = new int [this.nbSegments];
+		this.order = new int [this.nbSegments];
+		this.buffer = new int [length];
+	}
+
+	/**
+	 * Constructeur
+	 * @param path Le chemin à copier
+	 */
+	public TwoLevelList (Path path)
+	{
+		this (path.getPath ().length);
+		this.load (path.getPath ());
+	}
+
+	@Override
+	public void load (int [] path)
+	{
+		for (int i = 0; i < this.length; i++)
+		{
+			int city = path [i];
+			int segment = i / this.group;
+			if (i % this.group == 0)
+			{
+				this.head [segment] = city;
+				this.reversed [segment] = false;
+				this.size [segment] = 0;
+			}
+			this.parent [city] = segment;
+			this.rank [city] = i;
+			this.links [2 * city] = i > 0 ? path [i - 1] : -1;
+			this.links [2 * city + 1] = i < this.length - 1 ? path [i + 1] : -1;
+			this.tail [segment] = city;
+			this.size [segment]++;
+		}
+		for (int s = 0; s < this.nbSegments; s++)
+		{
+			this.segmentNext [s] = s + 1 == this.nbSegments ? 0 : s + 1;
+			this.segmentPrev [s] = s == 0 ? this.nbSegments - 1 : s - 1;
+		}
+		this.maxSize = this.group;
+		this.renumber ();
+	}
+
+	@Override
+	public void store (int [] path)
+	{
+		int city = this.first (0);
+		for (int i = 0; i < this.length; i++)
+		{
+			path [i] = city;
+			city = this.next (city);
+		}
+	}
+
+	/**
+	 * @return Un nouveau chemin, copie de la tournée (par exemple pour Evaluation.evaluate)
+	 */
+	public Path toPath ()
+	{
+		int [] path = new int [this.length];
+		this.store (path);
+		return new Path (path);
+	}
+
+	@Override
+	public int size ()
+	{
+		return this.length;
+	}
+
+	@Override
+	public int next (int city)
+	{
+		int s = this.parent [city];
+		if (this.reversed [s])
+		{
+			if (city != this.head [s])
+				return this.links [2 * city];
+		}
+		else if (city != this.tail [s])
+			return this.links [2 * city + 1];
+		return this.first (this.segmentNext [s]);
+	}
+
+	@Override
+	public int prev (int city)
+	{
+		int s = this.parent [city];
+		if (this.reversed [s])
+		{
+			if (city != this.tail [s])
+				return this.links [2 * city + 1];
+		}
+		else if (city != this.head [s])
+			return this.links [2 * city];
+		return this.last (this.segmentPrev [s]);
+	}
+
+	@Override
+	public boolean between (int a, int b, int c)
+	{
+		int pa = this.position (a);
+		int pb = this.position (b);
+		int pc = this.position (c);
+		if (pa <= pc)
+			return pa <= pb && pb <= pc;
+		return pb >= pa || pb <= pc;
+	}
+
+	@Override
+	public void twoOptMove (int a, int b, int c, int d)
+	{
+		if (this.next (a) == b)
+			this.reverse (b, c);
+		else
+			this.reverse (a, d);
+	}
+
+	/**
+	 * Or-opt par inversions : [p first..last n..u v] devient [p n..u last..first v],
+	 * puis le segment est remis à l'endroit si nécessaire
+	 * Si v précède directement le segment, le même mouvement est fait dans l'autre sens de parcours
+	 */
+	@Override
+	public void moveSegment (int first, int last, int u, int v, boolean reversed)
+	{
+		int p = this.prev (first);
+		int n = this.next (last);
+		if (v != p)
+			this.insert (first, last, p, n, u, v, reversed);
+		else if (u != n)
+			this.insert (last, first, n, p, v, u, reversed);
+		else if (!reversed)
+			// Tournée réduite à p, au segment et à u : revient à placer p entre last et u
+			this.moveSegment (p, p, last, n, false);
+	}
+
+	private void insert (int first, int last, int p, int n, int u, int v, boolean reversed)
+	{
+		this.twoOptMove (p, first, u, v);
+		this.twoOptMove (p, u, n, last);
+		if (!reversed)
+			this.twoOptMove (u, last, first, v);
+	}
+
+	private int first (int segment)
+	{
+		return this.reversed [segment] ? this.tail [segment] : this.head [segment];
+	}
+
+	private int last (int segment)
+	{
+		return this.reversed [segment] ? this.head [segment] : this.tail [segment];
+	}
+
+	private int index (int city)
+	{
+		int s = this.parent [city];
+		return this.reversed [s] ? this.rank [this.tail [s]] - this.rank [city] : this.rank [city] - this.rank [this.head [s]];
+	}
+
+	private int position (int city)
+	{
+		return this.offset [this.parent [city]] + this.index (city);
+	}
+
+	/**
+	 * Inverse le chemin allant de x à y dans le sens de la tournée (ou son complémentaire s'il est plus court)
+	 */
+	private void reverse (int x, int y)
+	{
+		int count = this.position (y) - this.position (x);
+		if (count < 0)
+			count += this.length;
+		if (2 * (count + 1) > this.length)
+		{
+			int nx = this.next (y);
+			y = this.prev (x);
+			x = nx;
+		}
+		if (this.parent [x] == this.parent [y] && this.index (x) <= this.index (y))
+		{
+			this.reverseInside (this.parent [x], x, y);
+			return;
+		}
+		this.splitBefore (x);
+		this.splitAfter (y, x);
+		if (this.parent [x] == this.parent [y])
+			this.reverseInside (this.parent [x], x, y);
+		else
+			this.reverseSegments (this.parent [x], this.parent [y]);
+		if (this.maxSize > 4 * this.group)
+		{
+			// Segments trop déséquilibrés : reconstruction
+			this.store (this.buffer);
+			this.load (this.buffer);
+		}
+		else
+			this.renumber ();
+	}
+
+	/**
+	 * Inverse le chemin de x à y, contenu dans un segment
+	 */
+	private void reverseInside (int segment, int x, int y)
+	{
+		int lo = this.reversed [segment] ? y : x;
+		int hi = this.reversed [segment] ? x : y;
+		if (lo == this.head [segment] && hi == this.tail [segment])
+		{
+			this.reversed [segment] = !this.reversed [segment];
+			return;
+		}
+		int m = 0;
+		for (int city = lo; ; city = this.links [2 * city + 1])
+		{
+			this.buffer [m++] = city;
+			if (city == hi)
+				break;
+		}
+		int before = lo == this.head [segment] ? -1 : this.links [2 * lo];
+		int after = hi == this.tail [segment] ? -1 : this.links [2 * hi + 1];
+		int r = this.rank [lo];
+		for (int i = 0; i < m; i++)
+		{
+			int city = this.buffer [m - 1 - i];
+			this.rank [city] = r + i;
+			this.links [2 * city] = i == 0 ? before : this.buffer [m - i];
+			this.links [2 * city + 1] = i == m - 1 ? after : this.buffer [m - 2 - i];
+		}
+		if (before < 0)
+			this.head [segment] = this.buffer [m - 1];
+		else
+			this.links [2 * before + 1] = this.buffer [m - 1];
+		if (after < 0)
+			this.tail [segment] = this.buffer [0];
+		else
+			this.links [2 * after] = this.buffer [0];
+	}
+
+	/**
+	 * Fait de x la première "ville" de son segment, en déplaçant la plus petite partie vers le segment voisin
+	 */
+	private void splitBefore (int x)
+	{
+		int s = this.parent [x];
+		int k = this.index (x);
+		if (k == 0)
+			return;
+		if (k <= this.size [s] - k)
+			this.moveFirst (s, k);
+		else
+			this.moveLast (s, this.size [s] - k);
+	}
+
+	/**
+	 * Fait de y la dernière "ville" de son segment, sans que x cesse d'être la première du sien
+	 */
+	private void splitAfter (int y, int x)
+	{
+		int s = this.parent [y];
+		int k = this.index (y) + 1;
+		int rest = this.size [s] - k;
+		if (rest == 0)
+			return;
+		boolean moveFirst;
+		if (this.first (s) == x)
+			moveFirst = false;
+		else if (this.first (this.segmentNext [s]) == x)
+			moveFirst = true;
+		else
+			moveFirst = k <= rest;
+		if (moveFirst)
+			this.moveFirst (s, k);
+		else
+			this.moveLast (s, rest);
+	}
+
+	/**
+	 * Déplace les count premières "villes" du segment à la fin du segment précédent
+	 */
+	private void moveFirst (int segment, int count)
+	{
+		int target = this.segmentPrev [segment];
+		for (int i = 0; i < count; i++)
+		{
+			int city;
+			if (this.reversed [segment])
+			{
+				city = this.tail [segment];
+				this.tail [segment] = this.links [2 * city];
+			}
+			else
+			{
+				city = this.head [segment];
+				this.head [segment] = this.links [2 * city + 1];
+			}
+			if (this.reversed [target])
+			{
+				int old = this.head [target];
+				this.links [2 * old] = city;
+				this.links [2 * city + 1] = old;
+				this.rank [city] = this.rank [old] - 1;
+				this.head [target] = city;
+			}
+			else
+			{
+				int old = this.tail [target];
+				this.links [2 * old + 1] = city;
+				this.links [2 * city] = old;
+				this.rank [city] = this.rank [old] + 1;
+				this.tail [target] = city;
+			}
+			this.parent [city] = target;
+		}
+		this.resize (segment, target, count);
+	}
+
+	/**
+	 * Déplace les count dernières "villes" du segment au début du segment suivant
+	 */
+	private void moveLast (int segment, int count)
+	{
+		int target = this.segmentNext [segment];
+		for (int i = 0; i < count; i++)
+		{
+			int city;
+			if (this.reversed [segment])
+			{
+				city = this.head [segment];
+				this.head [segment] = this.links [2 * city + 1];
+			}
+			else
+			{
+				city = this.tail [segment];
+				this.tail [segment] = this.links [2 * city];
+			}
+			if (this.reversed [target])
+			{
+				int old = this.tail [target];
+				this.links [2 * old + 1] = city;
+				this.links [2 * city] = old;
+				this.rank [city] = this.rank [old] + 1;
+				this.tail [target] = city;
+			}
+			else
+			{
+				int old = this.head [target];
+				this.links [2 * old] = city;
+				this.links [2 * city + 1] = old;
+				this.rank [city] = this.rank [old] - 1;
+				this.head [target] = city;
+			}
+			this.parent [city] = target;
+		}
+		this.resize (segment, target, count);
+	}
+
+	private void resize (int from, int to, int count)
+	{
+		this.size [from] -= count;
+		this.size [to] += count;
+		if (this.size [to] > this.maxSize)
+			this.maxSize = this.size [to];
+	}
+
+	/**
+	 * Inverse la suite de segments allant de first à last : ordre et bits d'inversion
+	 */
+	private void reverseSegments (int first, int last)
+	{
+		int count = 0;
+		for (int s = first; ; s = this.segmentNext [s])
+		{
+			this.order [count++] = s;
+			this.reversed [s] = !this.reversed [s];
+			if (s == last)
+				break;
+		}
+		int before = this.segmentPrev [first];
+		int after = this.segmentNext [last];
+		this.segmentNext [before] = last;
+		this.segmentPrev [last] = before;
+		for (int i = count - 1; i > 0; i--)
+		{
+			this.segmentNext [this.order [i]] = this.order [i - 1];
+			this.segmentPrev [this.order [i - 1]] = this.order [i];
+		}
+		this.segmentNext [first] = after;
+		this.segmentPrev [after] = first;
+	}
+
+	/**
+	 * Recalcule la position de départ de chaque segment (à partir du segment 0)
+	 */
+	private void renumber ()
+	{
+		int position = 0;
+		int s = 0;
+		do
+		{
+			this.offset [s] = position;
+			position += this.size [s];
+			s = this.segmentNext [s];
+		}
+		while (s != 0);
+	}
+}
@@ -2,6 +2,7 @@ package tsp.projects;
 
 import java.util.ArrayList;
 
+import tsp.evaluation.Budget;
 import tsp.evaluation.Evaluation;
 import tsp.evaluation.Problem;
 import tsp.evaluation.Solution;
@@ -14,6 +15,10 @@ public abstract class Project implements Runnable
 {
 	protected Evaluation evaluation;
 	protected Problem problem;
+	/**
+	 * Budget de temps processeur de l'exécution : budget.expired () peut être testé dans les boucles longues
+	 */
+	protected Budget budget;
     private String name;
     private ArrayList <String> authors;
 
@@ -26,6 +31,7 @@ public abstract class Project implements Runnable
 	{
 		this.evaluation = evaluation;
 		this.problem = evaluation.getProblem ();
+		this.budget = evaluation.getBudget ();
         this.name = "";
         this.authors = new ArrayList <String> ();
 	}
@@ -71,11 +77,11 @@ public abstract class Project implements Runnable
     }
 
 	/**
-	 * @return La meilleure solution découverte par la méthode
+	 * @return La meilleure solution découverte par la méthode, avec les statistiques de l'évaluation
 	 */
 	public Solution getSolution ()
 	{
-		return new Solution (this.authors, this.name, this.problem.getName (), this.evaluation.getBestEvaluation ());
+		return new Solution (this.authors, this.name, this.problem.getName (), this.evaluation.getBestEvaluation (), this.evaluation.getStatistics ());
 	}
 
 	/**
@@ -88,6 +94,15 @@ public abstract class Project implements Runnable
 	 */
 	public abstract void loop ();
 
+	/**
+	 * Fin de l'exécution : libération des ressources du projet (threads, pools)
+	 * Appelée une fois par le programme d'évaluation, que l'exécution s'arrête par épuisement du budget,
+	 * par interruption ou d'elle-même ; ne fait rien par défaut
+	 */
+	public void termination ()
+	{
+	}
+
 	@Override
 	public void run ()
 	{
@@ -99,7 +114,7 @@ public abstract class Project implements Runnable
 		{
 			System.out.println (e);
 		}
-		while (!Thread.currentThread ().isInterrupted ())
+		while (!Thread.currentThread ().isInterrupted () && !this.budget.expired ())
 			try
 			{
 				this.loop ();
@@ -1,12 +1,17 @@
 package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
 
-import tsp.evaluation.Coordinates;
 import tsp.evaluation.Evaluation;
+import tsp.evaluation.KdTree;
 import tsp.evaluation.Path;
 import tsp.projects.CompetitorProject;
 import tsp.projects.InvalidProjectException;
+import tsp.solver.LinKernighan;
+import tsp.solver.OrOpt;
+import tsp.solver.TwoOpt;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
 
 /**
  * Implémentation d'un algorithme génétique pour résoudre le problème du voyageur de commerce.
@@ -16,8 +21,17 @@ public class BakiTKO extends CompetitorProject {
     private Random random; // Générateur de nombres aléatoires
     private int N = 20; // Taille de la population
     private final double MUTATION = 0.5; // Taux de mutation
-
-    ArrayList<Path> population = new ArrayList<Path>(); // Population de chemins
+    private final Crossover.Type CROSSOVER = Crossover.Type.ONE_POINT; // Opérateur de croisement
+    private final boolean EAX = true; // Croisement EAX à la place de CROSSOVER
+    private final int EAX_CHILDREN = 10; // Nombre d'enfants candidats par croisement EAX
+    private final boolean LIN_KERNIGHAN = true; // Recherche locale Lin-Kernighan à la place de 2-opt + Or-opt
+    private final boolean PARALLEL; // Génération des enfants en parallèle
+    private ForkJoinPool pool; // Threads de génération des enfants (mode parallèle)
+    private ThreadLocal<Breeder> breeders; // Moteurs et tampons propres à chaque thread
+    private int[][] buffers; // Tableaux libres qui recevront les enfants de la génération
+    private Individual[] offspring; // Enfants de la génération, avant fusion dans la population
+
+    ArrayList<Individual> population = new ArrayList<Individual>(); // Population d'individus (chemins et longueurs)
 
     /**
      * Constructeur de la classe BakiTKO.
@@ -26,9 +40,21 @@ public class BakiTKO extends CompetitorProject {
      * @throws InvalidProjectException Si le projet est invalide
      */
     public BakiTKO(Evaluation evaluation) throws InvalidProjectException {
+        this(evaluation, true);
+    }
+
+    /**
+     * Constructeur utilisé par le modèle en îles, où chaque île a déjà son propre thread.
+     *
+     * @param evaluation L'instance de l'évaluation
+     * @param parallel   Génération des enfants en parallèle
+     * @throws InvalidProjectException Si le projet est invalide
+     */
+    BakiTKO(Evaluation evaluation, boolean parallel) throws InvalidProjectException {
         super(evaluation);
         setMethodName("BakiTKO");
         setAuthors("Alexandre Untereiner", "Kamelia Slimani");
+        this.PARALLEL = parallel;
     }
 
     /**
@@ -40,33 +66,16 @@ public class BakiTKO extends CompetitorProject {
     public Path Greedy(int length)
     {
         int [] path = new int [length]; // Initialise un tableau pour stocker le chemin
-        boolean [] used = new boolean [length]; // Initialise un tableau pour suivre les villes déjà visitées
+        KdTree.Search search = this.problem.getKdTree().newSearch(); // Index spatial des villes non visitées
         int init = this.random.nextInt (length); // Choix aléatoire de la première ville
         path [0] = init; // Ajoute la première ville au chemin
-        used [init] = true; // Marque la première ville comme visitée
+        search.remove (init); // Marque la première ville comme visitée
         for (int i = 1; i < length; i++)
         {
             // Boucle pour ajouter les autres villes au chemin de manière gloutonne
-            Coordinates current = this.problem.getCoordinates (path [i - 1]); // Coordonnées de la dernière ville visitée
-            double minDist = Double.MAX_VALUE; // Initialise la distance minimale à une valeur très grande
-            int nn = -1; // Indice de la ville la plus proche
-            for (int j = 0; j < length; j++)
-            {
-                // Parcours de toutes les villes pour trouver la plus proche non visitée
-                if (!used [j])
-                {
-                    Coordinates tmp = this.problem.getCoordinates (j); // Coordonnées de la ville en cours d'évaluation
-                    double dist = current.distance (tmp); // Calcul de la distance entre les deux villes
-                    if (dist < minDist)
-                    {
-                        // Si la distance est plus petite que la distance minimale actuelle
-                        minDist = dist; // Met à jour la distance minimale
-                        nn = j; // Met à jour l'indice de la ville la plus proche
-                    }
-                }
-            }
+            int nn = search.nearest (path [i - 1]); // Ville non visitée la plus proche de la dernière ville visitée
             path [i] = nn; // Ajoute la ville la plus proche au chemin
-            used [nn] = true; // Marque la ville ajoutée comme visitée
+            search.remove (nn); // Marque la ville ajoutée comme visitée
         }
 
         return new Path (path); // Retourne le chemin généré
@@ -81,18 +90,29 @@ public class BakiTKO extends CompetitorProject {
     {
         this.random = new Random(); // Initialise le générateur de nombres aléatoires
         this.length = this.problem.getLength (); // Récupère la longueur du problème
+        this.breeders = ThreadLocal.withInitial(Breeder::new); // Moteurs créés à la demande dans chaque thread
+        if (this.PARALLEL) {
+            this.pool = new ForkJoinPool(this.budget.getProcessors()); // Un thread par processeur réservé à l'exécution
+        }
+        int nbChildren = this.N - this.N / 4;
+        this.buffers = new int[nbChildren][];
+        for (int i = 0; i < nbChildren; i++) {
+            this.buffers[i] = new int[this.length]; // Premiers tableaux libres pour les enfants
+        }
+        this.offspring = new Individual[nbChildren];
 
         Path path;
         for (int i = 0; i < this.N  ; i++)
         {
             // Boucle pour générer la population initiale
             path = two_opt(Greedy(this.length)); // Applique l'algorithme glouton suivi de l'opérateur 2-opt
-            this.population.add(path); // Ajoute le chemin généré à la population
+            this.population.add(new Individual(path, this.evaluation.evaluate(path))); // Ajoute le chemin évalué à la population
         }
-        this.sortList(); // Trie la population en fonction de l'évaluation des chemins
+        this.selectElites(); // Place les meilleurs individus en tête de la population
     }
     /**
      * Applique l'opérateur 2-opt sur un chemin.
+     * Utilise le moteur à listes de voisins et bits "don't look" au lieu du balayage de toutes les paires.
      *
      * @param P Le chemin sur lequel appliquer l'opérateur 2-opt
      * @return Le chemin résultant après l'application de l'opérateur 2-opt
@@ -100,179 +120,239 @@ public class BakiTKO extends CompetitorProject {
     Path two_opt(Path P) {
         // Créez une copie du chemin d'entrée
         Path S = new Path(P);
-        boolean amelioration = true;
-
-        // Continuez jusqu'à ce qu'aucune autre amélioration ne soit possible
-        while (amelioration) {
-            for (int i = 0; i < length; i++) {
-                amelioration = false;
-                Coordinates i1 = this.problem.getCoordinates(S.getPath()[i]);
-
-                // Calculez l'index suivant (circulaire)
-                int l = i + 1;
-                if (l == length) l = 0;
-                Coordinates i2 = this.problem.getCoordinates(S.getPath()[l]);
-
-                // Initialisez l'index suivant (circulaire)
-                int n = l + 1;
-                for (int j = i; j < length; j++) {
-                    if (n >= length) n = 0;
-
-                    // Calculez l'index suivant-suivant (circulaire)
-                    int m = n + 1;
-                    if (m >= length) m = 0;
-
-                    Coordinates j1 = this.problem.getCoordinates(S.getPath()[n]);
-                    Coordinates j2 = this.problem.getCoordinates(S.getPath()[m]);
-
-                    if ((i1.distance(i2) + j1.distance(j2)) > (i2.distance(j2) + i1.distance(j1))) {
-                        amelioration = true;
-                        inversePath(S, l, n);
-                        i2 = this.problem.getCoordinates(S.getPath()[l]);
-                    }
-                    n++;
-                }
-            }
-        }
+        this.breeders.get().twoOpt.optimize(S);
         return S;
     }
 
     /**
-     * Applique l'opérateur 1-opt sur un chemin.
+     * Applique l'opérateur Or-opt sur un chemin : déplacement de segments de 1 à 3 villes,
+     * dans les deux sens, à côté de leurs plus proches voisins.
      *
-     * @param P Le chemin sur lequel appliquer l'opérateur 1-opt
-     * @return Le chemin résultant après l'application de l'opérateur 1-opt
+     * @param P Le chemin sur lequel appliquer l'opérateur Or-opt
+     * @return Le chemin résultant après l'application de l'opérateur Or-opt
      */
-    Path one_opt(Path P) {
+    Path or_opt(Path P) {
         // Créez une copie du chemin d'entrée
         Path S = new Path(P);
-        int max = 0;
-        boolean amelioration = true;
-
-        // Continuez jusqu'à ce qu'aucune autre amélioration ne soit possible ou jusqu'à atteindre la limite de boucles
-        while (amelioration && max < length) {
-            for (int i = 0; i < length; i++) {
-                amelioration = false;
-                Coordinates i1 = this.problem.getCoordinates(S.getPath()[i]);
-
-                // Calculez l'index suivant (circulaire)
-                int l = i + 1;
-                if (l == length) l = 0;
-                Coordinates i2 = this.problem.getCoordinates(S.getPath()[l]);
-
-                // Initialisez l'index suivant (circulaire)
-                int k = l + 1;
-                if (k == length) k = 0;
-                Coordinates i3 = this.problem.getCoordinates(S.getPath()[k]);
-
-                int n = k;
-                for (int j = 0; j < length - 4; j++) {
-                    if (n >= length) n = 0;
-
-                    // Calculez l'index suivant-suivant (circulaire)
-                    int m = n + 1;
-                    if (m >= length) m = 0;
-
-                    Coordinates j1 = this.problem.getCoordinates(S.getPath()[n]);
-                    Coordinates j2 = this.problem.getCoordinates(S.getPath()[m]);
-
-                    if ((i1.distance(i2) + i2.distance(i3) + j1.distance(j2)) > (j1.distance(i2) + i2.distance(j2) + i1.distance(i3))) {
-                        amelioration = true;
-                        shiftPath(S, l, n);
-                        i1 = this.problem.getCoordinates(S.getPath()[i]);
-                        i2 = this.problem.getCoordinates(S.getPath()[l]);
-                        i3 = this.problem.getCoordinates(S.getPath()[k]);
-                    }
-                    n++;
+        this.breeders.get().orOpt.optimize(S);
+        return S;
+    }
+
+    /**
+     * Copie d'individus de l'élite, à envoyer vers une autre île.
+     *
+     * @param count Nombre d'émigrants (au plus N / 4)
+     * @return Les copies
+     */
+    Individual[] emigrants(int count) {
+        Individual[] emigrants = new Individual[Math.min(count, this.N / 4)];
+        for (int i = 0; i < emigrants.length; i++) {
+            Individual individual = this.population.get(i);
+            emigrants[i] = new Individual(new Path(individual.getPath()), individual.getLength());
+        }
+        return emigrants;
+    }
+
+    /**
+     * Accueille des individus venus d'une autre île à la place des moins bons.
+     * Un immigrant de même longueur qu'un individu présent est ignoré (probable doublon).
+     *
+     * @param immigrants Les individus reçus (ils ne doivent plus être utilisés par l'île d'origine)
+     */
+    void immigrate(Individual[] immigrants) {
+        int last = this.N - 1;
+        for (Individual immigrant : immigrants) {
+            boolean duplicate = false;
+            for (Individual individual : this.population) {
+                if (individual.getLength() == immigrant.getLength()) {
+                    duplicate = true;
+                    break;
                 }
             }
-            max++;
+            if (!duplicate && last >= this.N / 2) {
+                // Le tableau remplacé reste à l'individu sortant : les tampons des enfants ne sont pas touchés
+                this.population.set(last--, immigrant);
+            }
         }
-        return S;
+        this.selectElites();
     }
 
     /**
-     * Trie la population en fonction de l'évaluation des chemins.
+     * Sélection partielle (top-k) sur les longueurs en cache : la moitié supérieure de la population
+     * contient les N / 2 meilleurs individus, et le premier quart les N / 4 meilleurs.
+     * Aucune évaluation n'est refaite.
      */
-    public void sortList()
+    public void selectElites()
     {
-        Collections.sort(this.population, Comparator.comparingDouble(this.evaluation::evaluate));
+        select(0, this.N - 1, this.N / 2);
+        select(0, this.N / 2 - 1, this.N / 4);
+    }
+
+    /**
+     * Quickselect : place en position k l'individu de rang k de [left, right],
+     * les meilleurs avant lui, les moins bons après.
+     *
+     * @param left  Début de la portion
+     * @param right Fin de la portion (incluse)
+     * @param k     Rang recherché
+     */
+    void select(int left, int right, int k) {
+        while (right > left) {
+            double pivot = population.get((left + right) >>> 1).getLength();
+            int i = left, j = right;
+            while (i <= j) {
+                while (population.get(i).getLength() < pivot) i++;
+                while (population.get(j).getLength() > pivot) j--;
+                if (i <= j) {
+                    Collections.swap(population, i, j);
+                    i++;
+                    j--;
+                }
+            }
+            if (k <= j) right = j;
+            else if (k >= i) left = i;
+            else return;
+        }
     }
 
 
     /**
      * Boucle principale de l'algorithme génétique.
+     * Les enfants d'une génération sont indépendants : chacun a sa graine, tirée dans l'ordre,
+     * et est écrit dans son propre tableau, les parents restant inchangés pendant la génération.
+     * Ils sont construits en parallèle (ou à la suite) puis fusionnés dans l'ordre,
+     * si bien que le résultat ne dépend pas du nombre de threads.
      */
     @Override
     public void loop() {
-        // Boucle pour générer de nouveaux individus
-        for (int i = this.N / 4; i < this.N; i++) {
-            int index1 = random.nextInt(this.N / 2);
-            int index2;
-            do {
-                index2 = random.nextInt(this.N / 2);
-            } while (index2 == index1);
+        int first = this.N / 4;
+        long[] seeds = new long[this.offspring.length];
+        for (int k = 0; k < seeds.length; k++) {
+            seeds[k] = random.nextLong();
+        }
 
-            int rand = random.nextInt(this.length);
-            Path pathChildren = Children(population.get(index1), population.get(index2), rand);
+        if (this.PARALLEL) {
+            // Un enfant par tâche, chaque thread utilise ses propres moteurs
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[seeds.length];
+            for (int k = 0; k < seeds.length; k++) {
+                final int child = k;
+                tasks[k] = this.pool.submit(() -> {
+                    this.offspring[child] = this.breeders.get().breed(seeds[child], this.buffers[child]);
+                });
+            }
+            for (ForkJoinTask<?> task : tasks) {
+                task.join();
+            }
+        } else {
+            Breeder breeder = this.breeders.get();
+            for (int k = 0; k < seeds.length; k++) {
+                this.offspring[k] = breeder.breed(seeds[k], this.buffers[k]);
+            }
+        }
 
-            // Mutation avec une certaine probabilité
-            if (random.nextDouble() < this.MUTATION) {
-                MutationShift(pathChildren);
-                MutationChange(pathChildren);
+        // Fusion dans l'ordre : remplacement des individus à partir du premier quart
+        for (int k = 0; k < this.offspring.length; k++) {
+            Individual child = this.offspring[k];
+            // Publication de l'enfant seulement s'il améliore la meilleure solution
+            if (child.getLength() < this.evaluation.getBestEvaluation()) {
+                child.setLength(this.evaluation.evaluate(child.getPath()));
             }
+            // Le tableau de l'individu remplacé devient libre
+            this.buffers[k] = this.population.set(first + k, child).getPath().getPath();
+            this.offspring[k] = null;
+        }
 
-            // Optimisation des chemins
-            pathChildren = one_opt(two_opt(pathChildren));
+        // Sélection des meilleurs individus
+        this.selectElites();
+    }
 
-            // Remplacement de l'individu actuel par le nouvel individu
-            this.population.set(i, pathChildren);
+    /**
+     * Fin de l'exécution (épuisement du budget ou interruption) : libère les threads de génération.
+     */
+    @Override
+    public void termination() {
+        if (this.pool != null) {
+            this.pool.shutdownNow();
         }
-
-        // Tri de la liste d'individus
-        this.sortList();
     }
 
     /**
-     * Génère un enfant à partir de deux chemins parents.
-     *
-     * @param P1 Premier parent
-     * @param P2 Deuxième parent
-     * @param n Point de croisement
-     * @return L'enfant généré
+     * Moteurs et tampons nécessaires à la construction d'un enfant.
+     * Chaque thread a le sien : aucune synchronisation pendant la construction.
      */
-    Path Children(Path P1, Path P2, int n) {
-        // Cloner les chemins P1 et P2
-        int[] p1 = P1.getPath().clone();
-        int[] p2 = P2.getPath().clone();
-        int[] c1 = p1.clone();
-
-        // Parcourir les indices à partir de n
-        for (int i = n; i < length; i++) {
-            for (int j = 0; j < length; j++) {
-                int k = 0;
-                // Recherche de l'indice k tel que p2[j] == p1[k]
-                while (!(p2[j] == p1[k]) && (k < n)) {
-                    k++;
-                }
+    private final class Breeder {
+        private final Random random = new Random(); // Générateur réinitialisé pour chaque enfant
+        private final TwoOpt twoOpt = new TwoOpt(problem); // Moteur de recherche locale 2-opt
+        private final OrOpt orOpt = new OrOpt(problem); // Moteur de recherche locale Or-opt
+        private final LinKernighan linKernighan = LIN_KERNIGHAN ? new LinKernighan(problem) : null; // Moteur Lin-Kernighan
+        private final Crossover crossover = new Crossover(length); // Opérateurs de croisement
+        private final Eax eax = EAX ? new Eax(problem) : null; // Croisement EAX
+
+        Breeder() {
+            // Recherches locales interrompues à l'épuisement du budget
+            this.twoOpt.setBudget(budget);
+            this.orOpt.setBudget(budget);
+            if (this.linKernighan != null) {
+                this.linKernighan.setBudget(budget);
+            }
+        }
 
-                // Si k == n, alors p2[j] n'est pas dans les n premiers éléments de p1
-                if (k == n) {
-                    c1[i] = p2[j];
-                    i++;
-                }
+        /**
+         * Construit un enfant : croisement, mutation puis recherche locale.
+         *
+         * @param seed     Graine de l'enfant
+         * @param children Tableau qui reçoit l'enfant
+         * @return L'enfant et sa longueur
+         */
+        Individual breed(long seed, int[] children) {
+            Random random = this.random;
+            random.setSeed(seed);
+            int index1 = random.nextInt(N / 2);
+            int index2;
+            do {
+                index2 = random.nextInt(N / 2);
+            } while (index2 == index1);
+
+            // Croisement écrit dans le tableau libre (aucune copie des parents)
+            Individual parent1 = population.get(index1);
+            Individual parent2 = population.get(index2);
+            Path pathChildren = new Path(children);
+            Individual child;
+            if (EAX) {
+                // EAX connaît la variation de longueur par rapport au premier parent
+                double delta = this.eax.cross(parent1.getPath().getPath(), parent2.getPath().getPath(), children, EAX_CHILDREN, random);
+                child = new Individual(pathChildren, parent1.getLength() + delta);
+            } else {
+                this.crossover.cross(CROSSOVER, parent1.getPath().getPath(), parent2.getPath().getPath(), children, random);
+                // Seule évaluation complète de l'enfant, les opérateurs suivants mettent à jour la longueur
+                child = new Individual(pathChildren, evaluation.quickEvaluate(pathChildren));
+            }
+
+            // Mutation avec une certaine probabilité
+            if (random.nextDouble() < MUTATION) {
+                MutationShift(child, random);
+                MutationChange(child, random);
+            }
+
+            // Optimisation des chemins (sur place, les gains sont retranchés de la longueur)
+            if (LIN_KERNIGHAN) {
+                child.update(-this.linKernighan.optimize(pathChildren));
+            } else {
+                child.update(-this.twoOpt.optimize(pathChildren));
+                child.update(-this.orOpt.optimize(pathChildren));
             }
+            return child;
         }
-        return new Path(c1);
     }
 
     /**
      * Génère un index aléatoire différent de i.
      *
-     * @param i Index à éviter
+     * @param i      Index à éviter
+     * @param random Générateur de nombres aléatoires
      * @return L'index aléatoire différent de i
      */
-    int randomIndex(int i) {
+    int randomIndex(int i, Random random) {
         int j;
         do {
             // Génère un indice aléatoire différent de i
@@ -317,18 +397,22 @@ public class BakiTKO extends CompetitorProject {
     }
 
     /**
-     * Applique l'opérateur de mutation Shift sur le chemin P.
+     * Applique l'opérateur de mutation Shift sur l'individu I.
      * Rend deux villes voisines
      *
-     * @param P Le chemin sur lequel appliquer l'opérateur de mutation Shift
+     * @param I L'individu sur lequel appliquer l'opérateur de mutation Shift
+     * @param random Générateur de nombres aléatoires
      */
-    void MutationShift(Path P) {
+    void MutationShift(Individual I, Random random) {
         // Génère deux indices aléatoires
         int index1 = random.nextInt(length);
-        int index2 = randomIndex(index1);
+        int index2 = randomIndex(index1, random);
+
+        // La ville en index1 est déplacée après la ville en index2 : variation en temps constant
+        I.update(this.evaluation.deltaOrOpt(I.getPath(), index1, 1, index2));
 
         // Applique la fonction shiftPath avec les indices générés
-        shiftPath(P, index1, index2);
+        shiftPath(I.getPath(), index1, index2);
     }
 
 
@@ -366,27 +450,33 @@ public class BakiTKO extends CompetitorProject {
     }
 
     /**
-     * Applique l'opérateur de mutation Inversion sur le chemin P.
+     * Applique l'opérateur de mutation Inversion sur l'individu I.
      *
-     * @param P Le chemin sur lequel appliquer l'opérateur de mutation Inversion
+     * @param I L'individu sur lequel appliquer l'opérateur de mutation Inversion
+     * @param random Générateur de nombres aléatoires
      */
-    void MutationInversion(Path P) {
+    void MutationInversion(Individual I, Random random) {
         // Génère deux indices aléatoires
         int index1 = random.nextInt(length);
-        int index2 = randomIndex(index1);
+        int index2 = randomIndex(index1, random);
+
+        // Inverser [index1, index2] (circulaire) revient à un 2-opt : variation en temps constant
+        int before = index1 == 0 ? length - 1 : index1 - 1;
+        I.update(this.evaluation.delta2Opt(I.getPath(), before, index2));
 
         // Applique la fonction inversePath avec les indices générés
-        inversePath(P, index1, index2);
+        inversePath(I.getPath(), index1, index2);
     }
 
 
     /**
-     * Applique l'opérateur de mutation Swap sur le chemin P.
+     * Applique l'opérateur de mutation Swap sur l'individu I.
      *
-     * @param P Le chemin sur lequel appliquer l'opérateur de mutation Swap
+     * @param I L'individu sur lequel appliquer l'opérateur de mutation Swap
+     * @param random Générateur de nombres aléatoires
      */
-    void MutationSwap(Path P) {
-        int[] p = P.getPath();
+    void MutationSwap(Individual I, Random random) {
+        int[] p = I.getPath().getPath();
 
         // Génère un indice aléatoire
         int index1 = random.nextInt(length);
@@ -396,6 +486,9 @@ public class BakiTKO extends CompetitorProject {
         if (index1 == length - 1)
             index2 = 0;
 
+        // Variation en temps constant
+        I.update(this.evaluation.deltaSwap(I.getPath(), index1, index2));
+
         // Échange les éléments aux indices index1 et index2
         int temp = p[index1];
         p[index1] = p[index2];
@@ -406,14 +499,18 @@ public class BakiTKO extends CompetitorProject {
     /**
      * Applique l'opérateur de mutation Change sur le chemin P.
      * Echange 2 villes
-     * @param P Le chemin sur lequel appliquer l'opérateur de mutation Change
+     * @param I L'individu sur lequel appliquer l'opérateur de mutation Change
+     * @param random Générateur de nombres aléatoires
      */
-    void MutationChange(Path P) {
-        int[] p = P.getPath();
+    void MutationChange(Individual I, Random random) {
+        int[] p = I.getPath().getPath();
 
         // Génère deux indices aléatoires
         int index1 = random.nextInt(length);
-        int index2 = randomIndex(index1);
+        int index2 = randomIndex(index1, random);
+
+        // Variation en temps constant
+        I.update(this.evaluation.deltaSwap(I.getPath(), index1, index2));
 
         // Échange les éléments aux indices index1 et index2
         int temp = p[index1];
@@ -0,0 +1,119 @@
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
+
+import tsp.evaluation.Evaluation;
+import tsp.projects.CompetitorProject;
+import tsp.projects.InvalidProjectException;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Modèle en îles de l'algorithme génétique BakiTKO.
+ * Plusieurs populations évoluent indépendamment, chacune dans son thread ; toutes les MIGRATION_INTERVAL
+ * générations, une île envoie des copies de son élite à l'île suivante (anneau).
+ * Les échanges passent par des boîtes aux lettres atomiques, sans verrou : un envoi remplace le lot
+ * pas encore lu, une réception vide la boîte.
+ * Les îles publient leurs meilleures solutions dans l'évaluation commune, après comparaison
+ * avec la meilleure longueur connue.
+ */
+public class BakiTKOArchipel extends CompetitorProject {
+    private final int ISLANDS = 4; // Nombre d'îles
+    private final int MIGRATION_INTERVAL = 10; // Nombre de générations entre deux migrations
+    private final int MIGRANTS = 2; // Nombre d'individus envoyés à chaque migration
+
+    private BakiTKO[] islands; // Les populations
+    private int[] generations; // Nombre de générations de chaque île (modifié par son seul thread)
+    private AtomicReferenceArray<Individual[]> mailboxes; // Individus en attente pour chaque île
+    private ExecutorService executor; // Threads des îles autres que la première
+
+    /**
+     * Constructeur de la classe BakiTKOArchipel.
+     *
+     * @param evaluation L'instance de l'évaluation
+     * @throws InvalidProjectException Si le projet est invalide
+     */
+    public BakiTKOArchipel(Evaluation evaluation) throws InvalidProjectException {
+        super(evaluation);
+        setMethodName("BakiTKO Archipel");
+        setAuthors("Alexandre Untereiner", "Kamelia Slimani");
+    }
+
+    /**
+     * Crée les îles. La première évolue dans le thread du projet, les autres dans leurs propres threads.
+     */
+    @Override
+    public void initialization() {
+        this.islands = new BakiTKO[this.ISLANDS];
+        this.generations = new int[this.ISLANDS];
+        this.mailboxes = new AtomicReferenceArray<>(this.ISLANDS);
+        for (int i = 0; i < this.ISLANDS; i++) {
+            try {
+                // Chaque île a déjà son thread : pas de génération parallèle à l'intérieur
+                this.islands[i] = new BakiTKO(this.evaluation, false);
+            } catch (InvalidProjectException e) {
+                throw new IllegalStateException(e);
+            }
+        }
+        this.executor = Executors.newFixedThreadPool(this.ISLANDS - 1, runnable -> {
+            Thread thread = new Thread(runnable, "BakiTKO-island");
+            thread.setDaemon(true);
+            return thread;
+        });
+        for (int i = 1; i < this.ISLANDS; i++) {
+            final int island = i;
+            this.executor.execute(() -> {
+                try {
+                    this.islands[island].initialization();
+                } catch (Exception e) {
+                    // Comme Project.run : l'erreur est affichée, et l'île sans population n'évolue pas
+                    System.out.println(e);
+                    return;
+                }
+                while (!Thread.currentThread().isInterrupted() && !this.budget.expired()) {
+                    try {
+                        this.generation(island);
+                    } catch (Exception e) {
+                        System.out.println(e);
+                    }
+                }
+            });
+        }
+        this.islands[0].initialization();
+    }
+
+    /**
+     * Une génération de la première île.
+     */
+    @Override
+    public void loop() {
+        this.generation(0);
+    }
+
+    /**
+     * Fin de l'exécution : arrête les autres îles (leurs threads s'arrêtent aussi d'eux-mêmes quand le budget est épuisé).
+     */
+    @Override
+    public void termination() {
+        if (this.executor != null) {
+            this.executor.shutdownNow();
+        }
+    }
+
+    /**
+     * Fait évoluer une île d'une génération, puis effectue la migration si c'est le moment.
+     *
+     * @param island Indice de l'île
+     */
+    private void generation(int island) {
+        BakiTKO population = this.islands[island];
+        population.loop();
+        if (++this.generations[island] % this.MIGRATION_INTERVAL == 0) {
+            this.mailboxes.set((island + 1) % this.ISLANDS, population.emigrants(this.MIGRANTS));
+            Individual[] immigrants = this.mailboxes.getAndSet(island, null);
+            if (immigrants != null) {
+                population.immigrate(immigrants);
+            }
+        }
+    }
+}
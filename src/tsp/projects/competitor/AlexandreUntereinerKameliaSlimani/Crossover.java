@@ -0,0 +1,196 @@
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
+
+import java.util.Arrays;
+import java.util.Random;
+
+/**
+ * Opérateurs de croisement en temps linéaire.
+ * Les appartenances sont marquées par un numéro de génération (pas de remise à zéro entre deux enfants)
+ * et les positions des villes dans le premier parent sont indexées : aucune recherche imbriquée,
+ * aucun tableau alloué par enfant (l'enfant est écrit dans un tableau fourni par l'appelant).
+ * Une instance n'est pas partagée entre threads.
+ */
+public class Crossover {
+    /**
+     * Opérateurs disponibles
+     */
+    public enum Type {
+        /** Préfixe du premier parent, puis villes manquantes dans l'ordre du second */
+        ONE_POINT,
+        /** Order crossover (OX) : portion du premier parent, reste dans l'ordre circulaire du second */
+        OX,
+        /** Partially mapped crossover (PMX) */
+        PMX,
+        /** Cycle crossover (CX) */
+        CX
+    }
+
+    private final int length; // Nombre de villes
+    private final int[] position; // Position de chaque ville dans le premier parent
+    private final int[] mark; // Marque d'appartenance de chaque ville (ou position)
+    private int stamp; // Numéro de la marque courante
+
+    /**
+     * Constructeur de la classe Crossover.
+     *
+     * @param length Nombre de villes
+     */
+    public Crossover(int length) {
+        this.length = length;
+        this.position = new int[length];
+        this.mark = new int[length];
+        this.stamp = 0;
+    }
+
+    /**
+     * Produit un enfant à partir de deux parents.
+     *
+     * @param type   L'opérateur de croisement
+     * @param p1     Premier parent
+     * @param p2     Deuxième parent
+     * @param child  Tableau de destination (distinct des parents)
+     * @param random Générateur de nombres aléatoires (points de coupure)
+     */
+    public void cross(Type type, int[] p1, int[] p2, int[] child, Random random) {
+        if (type == Type.ONE_POINT) {
+            onePoint(p1, p2, child, random.nextInt(length));
+            return;
+        }
+        int a = random.nextInt(length);
+        int b = random.nextInt(length);
+        if (a > b) {
+            int tmp = a;
+            a = b;
+            b = tmp;
+        }
+        switch (type) {
+            case OX:
+                orderCrossover(p1, p2, child, a, b);
+                break;
+            case PMX:
+                partiallyMapped(p1, p2, child, a, b);
+                break;
+            default:
+                cycleCrossover(p1, p2, child);
+                break;
+        }
+    }
+
+    /**
+     * Croisement en un point : p1[0, n[ puis les villes manquantes dans l'ordre de p2.
+     *
+     * @param p1    Premier parent
+     * @param p2    Deuxième parent
+     * @param child Tableau de destination
+     * @param n     Point de croisement
+     */
+    public void onePoint(int[] p1, int[] p2, int[] child, int n) {
+        int stamp = nextStamp();
+        for (int i = 0; i < n; i++) {
+            child[i] = p1[i];
+            mark[p1[i]] = stamp;
+        }
+        int i = n;
+        for (int j = 0; j < length && i < length; j++) {
+            if (mark[p2[j]] != stamp) {
+                child[i++] = p2[j];
+            }
+        }
+    }
+
+    /**
+     * Order crossover : p1[a, b] est conservé, les autres positions sont remplies à partir de b + 1
+     * avec les villes de p2 prises dans l'ordre circulaire à partir de b + 1.
+     *
+     * @param p1    Premier parent
+     * @param p2    Deuxième parent
+     * @param child Tableau de destination
+     * @param a     Début de la portion conservée
+     * @param b     Fin de la portion conservée (incluse)
+     */
+    public void orderCrossover(int[] p1, int[] p2, int[] child, int a, int b) {
+        int stamp = nextStamp();
+        for (int i = a; i <= b; i++) {
+            child[i] = p1[i];
+            mark[p1[i]] = stamp;
+        }
+        int i = b + 1 == length ? 0 : b + 1;
+        int j = i;
+        for (int filled = b - a + 1; filled < length; filled++) {
+            while (mark[p2[j]] == stamp) {
+                if (++j == length) j = 0;
+            }
+            child[i] = p2[j];
+            if (++j == length) j = 0;
+            if (++i == length) i = 0;
+        }
+    }
+
+    /**
+     * Partially mapped crossover : p1[a, b] est conservé, les autres positions reçoivent la ville de p2,
+     * remplacée par la correspondance p1 -> p2 tant qu'elle appartient déjà à la portion.
+     *
+     * @param p1    Premier parent
+     * @param p2    Deuxième parent
+     * @param child Tableau de destination
+     * @param a     Début de la portion conservée
+     * @param b     Fin de la portion conservée (incluse)
+     */
+    public void partiallyMapped(int[] p1, int[] p2, int[] child, int a, int b) {
+        int stamp = nextStamp();
+        for (int i = 0; i < length; i++) {
+            position[p1[i]] = i;
+        }
+        for (int i = a; i <= b; i++) {
+            child[i] = p1[i];
+            mark[p1[i]] = stamp;
+        }
+        for (int i = 0; i < length; i++) {
+            if (i == a) {
+                i = b;
+                continue;
+            }
+            int city = p2[i];
+            while (mark[city] == stamp) {
+                city = p2[position[city]];
+            }
+            child[i] = city;
+        }
+    }
+
+    /**
+     * Cycle crossover : les cycles de positions sont copiés alternativement de p1 et de p2.
+     *
+     * @param p1    Premier parent
+     * @param p2    Deuxième parent
+     * @param child Tableau de destination
+     */
+    public void cycleCrossover(int[] p1, int[] p2, int[] child) {
+        int stamp = nextStamp();
+        for (int i = 0; i < length; i++) {
+            position[p1[i]] = i;
+        }
+        boolean fromFirst = true;
+        for (int start = 0; start < length; start++) {
+            if (mark[start] == stamp) continue;
+            int i = start;
+            do {
+                mark[i] = stamp;
+                child[i] = fromFirst ? p1[i] : p2[i];
+                i = position[p2[i]];
+            } while (i != start);
+            fromFirst = !fromFirst;
+        }
+    }
+
+    /**
+     * @return Une nouvelle marque (les tableaux sont remis à zéro seulement en cas de débordement)
+     */
+    private int nextStamp() {
+        if (++stamp == Integer.MAX_VALUE) {
+            Arrays.fill(mark, 0);
+            stamp = 1;
+        }
+        return stamp;
+    }
+}
@@ -1,535 +1,361 @@
-/*
-package tsp.projects.competitor.bot;
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
 
-import tsp.evaluation.Coordinates;
 import tsp.evaluation.Evaluation;
+import tsp.evaluation.KdTree;
+import tsp.evaluation.NeighbourLists;
 import tsp.evaluation.Path;
 import tsp.projects.CompetitorProject;
 import tsp.projects.InvalidProjectException;
+import tsp.solver.OrOpt;
+import tsp.solver.TwoOpt;
 
 import java.util.*;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinTask;
+import java.util.function.IntConsumer;
 
-*/
 /**
- * Cette classe représente un algorithme combiné d'Optimisation par Colonie de Fourmis (ACO),
- * d'Algorithme Génétique (GA) et de Recuit Simulé (SA) pour résoudre le Problème du Voyageur de Commerce (TSP).
- * Elle étend la classe CompetitorProject et implémente l'algorithme de résolution du TSP.
- *//*
-
-
+ * Optimisation par colonie de fourmis (MAX-MIN Ant System) pour résoudre le problème du voyageur de commerce.
+ * Les phéromones ne sont stockées que sur les arêtes vers les K plus proches voisins de chaque ville,
+ * et le produit phéromone × heuristique est précalculé après chaque mise à jour.
+ * Les fourmis sont construites en parallèle ; quand tous les candidats d'une ville sont visités,
+ * la fourmi va à la ville non visitée la plus proche (arbre k-d).
+ * Les meilleures fourmis de chaque itération sont améliorées par 2-opt et Or-opt.
+ */
 public class DoumbeEstropier extends CompetitorProject {
 
-    private int length;
-    private Random random;
-    private int N = 50; // Nombre de fourmis
+    private int length; // Nombre de villes
+    private Random random; // Générateur de nombres aléatoires
+    private final int N = 20; // Nombre de fourmis
+    private final int K = 15; // Nombre de villes candidates par ville
     private final double ALPHA = 1.0; // Poids de la phéromone
-    private final double BETA = 1.0;  // Poids de l'information heuristique
-    private final double RHO = 0.3;    // Taux d'évaporation
-    private final double Q = 50.0;     // Facteur de pénalité pour les chemins plus longs
-    private final double MUTATION = 0.5; // Probabilité de mutation pour GA
-    private final double TEMPERATURE = 100.0; // Température initiale pour SA
-    private final double COOLING_RATE = 0.95; // Taux de refroidissement pour SA
-    private final int MAX_ITERATIONS = 10000; // Nombre maximal d'itérations pour SA
-
-    // Pistes de phéromones pour chaque paire de villes
-    private double[][] pheromones;
-
-*/
-/**
+    private final double BETA = 2.0;  // Poids de l'information heuristique
+    private final double RHO = 0.2;    // Taux d'évaporation
+    private final double P_BEST = 0.05; // Probabilité de reconstruire la meilleure solution à convergence (borne min)
+    private final int POLISHED = 4; // Nombre de fourmis améliorées par recherche locale à chaque itération
+    private final int GLOBAL_BEST_PERIOD = 5; // Période des dépôts par la meilleure solution globale
+    private final int STAGNATION = 100; // Nombre d'itérations sans amélioration avant réinitialisation
+    private final boolean PARALLEL = true; // Construction des fourmis en parallèle
+
+    private int k; // Nombre effectif de candidats par ville
+    private int[] candidates; // Candidats de chaque ville (k par ville, à la suite)
+    private float[] heuristic; // (1 / distance) ^ BETA pour chaque arête candidate
+    private float[] pheromones; // Phéromones des arêtes candidates
+    private float[] choice; // Phéromone ^ ALPHA × heuristique, précalculé
+    private double tauMin; // Borne inférieure des phéromones
+    private double tauMax; // Borne supérieure des phéromones
+
+    private int[][] tours; // Chemins des fourmis
+    private double[] lengths; // Longueurs des chemins des fourmis
+    private int[] bestTour; // Meilleur chemin trouvé
+    private double bestLength; // Longueur du meilleur chemin
+    private int iteration; // Numéro de l'itération
+    private int lastImprovement; // Dernière itération ayant amélioré le meilleur chemin
+
+    private ForkJoinPool pool; // Threads de construction (mode parallèle)
+    private ThreadLocal<Ant> ants; // Tampons et moteurs propres à chaque thread
+
+    /**
      * Construit un nouvel objet DoumbeEstropier avec la fonction d'évaluation spécifiée.
      *
      * @param evaluation La fonction d'évaluation pour le problème TSP.
      * @throws InvalidProjectException Si l'initialisation du projet échoue.
-     *//*
-
-
+     */
     public DoumbeEstropier(Evaluation evaluation) throws InvalidProjectException {
         super(evaluation);
         setMethodName("DoumbeEstropier");
         setAuthors("Alexandre", "Kamelia");
     }
 
-*/
-/*
-*
-     * Initialise les paramètres et les structures de données nécessaires pour l'algorithme.
-
-*//*
-
-
+    /**
+     * Initialise les listes de candidats, l'heuristique, une première solution (glouton + recherche locale)
+     * et les phéromones à leur borne supérieure.
+     */
     @Override
     public void initialization() {
         this.random = new Random();
         this.length = this.problem.getLength();
-        this.pheromones = new double[length][length];
-
-        // Initialise les phéromones à une petite valeur
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < length; j++) {
-                pheromones[i][j] = 0.1;
+        NeighbourLists lists = this.problem.getNeighbourLists(this.K);
+        this.k = lists.getK();
+        this.candidates = new int[this.length * this.k];
+        this.heuristic = new float[this.length * this.k];
+        this.pheromones = new float[this.length * this.k];
+        this.choice = new float[this.length * this.k];
+        for (int i = 0; i < this.length; i++) {
+            int[] neighbours = lists.get(i);
+            for (int c = 0; c < this.k; c++) {
+                int j = neighbours[c];
+                this.candidates[i * this.k + c] = j;
+                // Distance nulle (villes confondues) : heuristique bornée
+                double distance = Math.max(this.problem.distance(i, j), 1e-9);
+                this.heuristic[i * this.k + c] = (float) Math.pow(1.0 / distance, this.BETA);
             }
         }
-    }
-
-*/
-/*
-*
-     * Exécute l'algorithme principal qui combine l'ACO, le GA et le SA pour résoudre le problème TSP.
-     * Cette méthode itère sur un nombre défini de fourmis pour construire des chemins, puis exécute
-     * l'algorithme GA sur les chemins sélectionnés, suivi de l'algorithme SA pour améliorer la solution finale.
-     * Enfin, elle évalue la solution finale à l'aide de la fonction d'évaluation.
-
-*//*
 
+        this.ants = ThreadLocal.withInitial(Ant::new);
+        if (this.PARALLEL) {
+            this.pool = new ForkJoinPool(this.budget.getProcessors()); // Un thread par processeur réservé à l'exécution
+        }
+        this.tours = new int[this.N][this.length];
+        this.lengths = new double[this.N];
+
+        // Solution initiale : plus proche voisin puis recherche locale
+        Ant ant = this.ants.get();
+        this.bestTour = new int[this.length];
+        this.bestLength = ant.greedy(this.random.nextInt(this.length), this.bestTour);
+        this.bestLength -= ant.polish(this.bestTour);
+        this.evaluation.evaluate(new Path(this.bestTour));
+
+        this.setBounds();
+        Arrays.fill(this.pheromones, (float) this.tauMax);
+        this.updateChoice();
+        this.iteration = 0;
+        this.lastImprovement = 0;
+    }
 
+    /**
+     * Une itération : construction des fourmis, recherche locale sur les meilleures,
+     * puis évaporation et dépôt de phéromones.
+     */
     @Override
     public void loop() {
-        // Exécute l'algorithme ACO
-        List<Path> antPaths = new ArrayList<>();
-        for (int i = 0; i < N; i++) {
-            antPaths.add(constructAntPath());
-        }
-        updatePheromones(antPaths); // Met à jour les phéromones basées sur les chemins des fourmis
-
-        // Exécute l'algorithme GA sur les chemins sélectionnés ou les chemins des fourmis d'origine
-        ArrayList<Path> population = generateInitialPopulation(N);
-        for (int i = 0; i < 100; i++) { // Ajustez le nombre d'itérations au besoin
-            population = selection(population, N);
-            population = mutation(population, MUTATION);
+        this.iteration++;
+        long[] seeds = new long[this.N];
+        for (int a = 0; a < this.N; a++) {
+            seeds[a] = this.random.nextLong();
         }
-        Path gaSolution = population.get(0); // Sélectionne le meilleur chemin de la population finale
-
-        // Exécute l'algorithme SA sur la solution GA ou le meilleur chemin des fourmis
-        Path finalSolution = simulatedAnnealing(gaSolution);
-
-        evaluation.evaluate(finalSolution);
-    }
-
-*/
-/**
-     * Met à jour les phéromones en fonction des chemins parcourus par les fourmis.
-     * Ce processus implique l'évaporation des phéromones existantes et l'ajout de nouvelles phéromones
-     * basées sur la longueur des chemins parcourus par les fourmis.
-     *
-     * @param antPaths La liste des chemins parcourus par les fourmis.
-     *//*
-
-
-    private void updatePheromones(List<Path> antPaths) {
-        // Évaporation
-        for (int i = 0; i < length; i++) {
-            for (int j = 0; j < length; j++) {
-                pheromones[i][j] *= RHO;
+        this.forEach(this.N, a -> this.lengths[a] = this.ants.get().construct(seeds[a], this.tours[a]));
+
+        // Recherche locale sur les POLISHED fourmis les plus courtes
+        int polished = Math.min(this.POLISHED, this.N);
+        int[] order = new int[this.N];
+        for (int a = 0; a < this.N; a++) order[a] = a;
+        for (int i = 0; i < polished; i++) {
+            for (int j = i + 1; j < this.N; j++) {
+                if (this.lengths[order[j]] < this.lengths[order[i]]) {
+                    int tmp = order[i];
+                    order[i] = order[j];
+                    order[j] = tmp;
+                }
             }
         }
+        this.forEach(polished, i -> this.lengths[order[i]] -= this.ants.get().polish(this.tours[order[i]]));
 
-        // Mise à jour basée sur la longueur des chemins
-        for (Path path : antPaths) {
-            double pathLength = evaluation.evaluate(path);
-            for (int i = 0; i < path.getPath().length - 1; i++) {
-                int city1 = path.getPath()[i];
-                int city2 = path.getPath()[i + 1];
-                pheromones[city1][city2] += Q / pathLength;
+        int iterationBest = 0;
+        for (int a = 1; a < this.N; a++) {
+            if (this.lengths[a] < this.lengths[iterationBest]) iterationBest = a;
+        }
+        if (this.lengths[iterationBest] < this.bestLength - 1e-9) {
+            this.bestLength = this.lengths[iterationBest];
+            System.arraycopy(this.tours[iterationBest], 0, this.bestTour, 0, this.length);
+            this.lastImprovement = this.iteration;
+            this.setBounds();
+            // Publication seulement si la solution améliore la meilleure connue
+            if (this.bestLength < this.evaluation.getBestEvaluation()) {
+                this.evaluation.evaluate(new Path(this.bestTour));
             }
-            // Traitement de la connexion de la dernière ville à la première
-            int lastCity = path.getPath()[path.getPath().length - 1];
-            int firstCity = path.getPath()[0];
-            pheromones[lastCity][firstCity] += Q / pathLength;
         }
-    }
-
-*/
-/**
-     * Calcule la distance entre deux villes spécifiées.
-     *
-     * @param city1 L'index de la première ville.
-     * @param city2 L'index de la deuxième ville.
-     * @return La distance entre les deux villes.
-     *//*
-
-
-    private double calculateDistance(int city1, int city2) {
-        Coordinates c1 = problem.getCoordinates(city1);
-        Coordinates c2 = problem.getCoordinates(city2);
-        return c1.distance(c2);
-    }
 
-*/
-/**
-     * Calcule l'heuristique entre deux villes spécifiées.
-     *
-     * @param city1 L'index de la première ville.
-     * @param city2 L'index de la deuxième ville.
-     * @return L'heuristique entre les deux villes.
-     *//*
-
-
-    private double calculateHeuristic(int city1, int city2) {
-
-        return 1.0 / calculateDistance(city1, city2);
-    }
-
-*/
-/**
-     * Sélectionne la prochaine ville à visiter pour une fourmi spécifique, en utilisant un processus de sélection de la roulette.
-     *
-     * @param currentCity La ville actuelle.
-     * @param visited     Un tableau de booléens indiquant les villes déjà visitées.
-     * @return L'index de la prochaine ville à visiter.
-     *//*
-
-
-    private int selectNextCity(int currentCity, boolean[] visited) {
-        double[] probabilities = new double[length];
-        double sum = 0.0;
-
-        for (int nextCity = 0; nextCity < length; nextCity++) {
-            if (!visited[nextCity]) {
-                double pheromone = Math.pow(pheromones[currentCity][nextCity], ALPHA);
-                double heuristic = Math.pow(calculateHeuristic(currentCity, nextCity), BETA);
-                probabilities[nextCity] = pheromone * heuristic;
-                sum += probabilities[nextCity];
+        // Mise à jour MAX-MIN : un seul dépôt, par la meilleure fourmi de l'itération ou la meilleure globale
+        if (this.iteration - this.lastImprovement > this.STAGNATION) {
+            Arrays.fill(this.pheromones, (float) this.tauMax);
+            this.lastImprovement = this.iteration;
+        } else {
+            this.evaporate();
+            if (this.iteration % this.GLOBAL_BEST_PERIOD == 0) {
+                this.deposit(this.bestTour, this.bestLength);
             } else {
-                probabilities[nextCity] = 0.0;
+                this.deposit(this.tours[iterationBest], this.lengths[iterationBest]);
             }
         }
+        this.updateChoice();
+    }
 
-        // Sélection de la ville suivante selon la méthode de la roulette
-        double rand = random.nextDouble() * sum;
-        double partialSum = 0.0;
-        for (int nextCity = 0; nextCity < length; nextCity++) {
-            partialSum += probabilities[nextCity];
-            if (partialSum >= rand) {
-                return nextCity;
-            }
+    /**
+     * Fin de l'exécution (épuisement du budget ou interruption) : libère les threads de construction.
+     */
+    @Override
+    public void termination() {
+        if (this.pool != null) {
+            this.pool.shutdownNow();
         }
-
-        return -1; // Ne devrait pas se produire
     }
 
-*/
-/**
-     * Construit le chemin parcouru par une fourmi, en utilisant l'algorithme de sélection de la prochaine ville basé sur la roulette.
+    /**
+     * Exécute une tâche pour chaque indice, en parallèle si PARALLEL.
      *
-     * @return Le chemin parcouru par la fourmi.
-   *//*
-
-
-    private Path constructAntPath() {
-        boolean[] visited = new boolean[length];
-        int[] path = new int[length];
-
-        // Initialise une ville de départ aléatoire
-        int currentCity = random.nextInt(length);
-        path[0] = currentCity;
-        visited[currentCity] = true;
-
-        for (int i = 1; i < length; i++) {
-            // Sélectionne la prochaine ville en fonction de la probabilité en utilisant la sélection de la roulette
-            double[] probabilities = new double[length];
-            double sum = 0.0;
-
-            for (int nextCity = 0; nextCity < length; nextCity++) {
-                if (!visited[nextCity]) {
-                    double pheromone = Math.pow(pheromones[currentCity][nextCity], ALPHA);  // Poids des phéromones
-                    double heuristic = 1.0 / calculateDistance(currentCity, nextCity); // Heuristique (inverse de la distance)
-                    double probability = pheromone * heuristic;
-                    probabilities[nextCity] = probability;
-                    sum += probability;
-                }
+     * @param count Nombre d'indices
+     * @param task  La tâche
+     */
+    private void forEach(int count, IntConsumer task) {
+        if (this.PARALLEL) {
+            ForkJoinTask<?>[] tasks = new ForkJoinTask<?>[count];
+            for (int i = 0; i < count; i++) {
+                final int index = i;
+                tasks[i] = this.pool.submit(() -> task.accept(index));
             }
-
-            double rand = random.nextDouble() * sum;
-            double partialSum = 0.0;
-            for (int nextCity = 0; nextCity < length; nextCity++) {
-                partialSum += probabilities[nextCity];
-                if (partialSum >= rand) {
-                    currentCity = nextCity;
-                    path[i] = currentCity;
-                    visited[currentCity] = true;
-                    break; // Sort de la boucle après avoir sélectionné la prochaine ville
-                }
+            for (ForkJoinTask<?> t : tasks) {
+                t.join();
             }
-        }
-
-        return new Path(path);
-    }
-
-*/
-/*
-*
-     * Applique l'algorithme de Greedy pour générer une solution initiale.
-     *
-     * @param length La longueur du chemin à générer.
-     * @return Un chemin généré par l'algorithme de Greedy.
-
-*//*
-
-
-    public Path Greedy(int length) {
-        int[] path = new int[length];
-        boolean[] used = new boolean[length];
-        int init = this.random.nextInt(length);
-        path[0] = init;
-        used[init] = true;
-        for (int i = 1; i < length; i++) {
-            Coordinates current = this.problem.getCoordinates(path[i - 1]);
-            double minDist = Double.MAX_VALUE;
-            int nn = -1;
-            for (int j = 0; j < length; j++) {
-                if (!used[j]) {
-                    Coordinates tmp = this.problem.getCoordinates(j);
-                    double dist = current.distance(tmp);
-                    if (dist < minDist) {
-                        minDist = dist;
-                        nn = j;
-                    }
-                }
+        } else {
+            for (int i = 0; i < count; i++) {
+                task.accept(i);
             }
-            path[i] = nn;
-            used[nn] = true;
         }
-
-        return new Path(path);
     }
 
-*/
-/*
-*
-     * Génère une population initiale pour l'algorithme génétique (GA).
-     *
-     * @param populationSize La taille de la population à générer.
-     * @return Une liste de chemins, représentant la population initiale.
-
-*//*
-
-
-    public ArrayList<Path> generateInitialPopulation(int populationSize) {
-        ArrayList<Path> population = new ArrayList<>();
-        for (int i = 0; i < populationSize; i++) {
-            Path path = two_opt(Greedy(this.length));
-            population.add(path);
-        }
-        return population;
+    /**
+     * Bornes des phéromones (MAX-MIN Ant System) d'après la meilleure longueur connue.
+     */
+    private void setBounds() {
+        this.tauMax = 1.0 / (this.RHO * this.bestLength);
+        double p = Math.pow(this.P_BEST, 1.0 / this.length);
+        double average = Math.max(this.k / 2.0 - 1, 1);
+        this.tauMin = Math.min(this.tauMax * (1 - p) / (average * p), this.tauMax);
     }
 
-*/
-/*
-*
-     * Applique l'opérateur d'amélioration 2-opt sur un chemin spécifié.
-     *
-     * @param P Le chemin sur lequel appliquer l'opérateur 2-opt.
-     * @return Le chemin résultant après l'application de l'opérateur 2-opt.
-
-*//*
-
-
-    public Path two_opt(Path P) {
-        Path S = new Path(P);
-
-        boolean ameliorable = true;
-
-        while (ameliorable) {
-            for (int i = 0; i < length; i++) {
-                ameliorable = false;
-                Coordinates i1 = this.problem.getCoordinates(S.getPath()[i]);
-                int l = i + 1;
-
-                if (l == length) {
-                    l = 0;
-                }
-
-                Coordinates i2 = this.problem.getCoordinates(S.getPath()[l]);
-
-                int n = l + 1;
-                for (int j = i; j < length; j++) {
-                    if (n >= length) n = 0;
-
-                    int m = n + 1;
-
-                    if (m >= length) m = 0;
-
-                    Coordinates j1 = this.problem.getCoordinates(S.getPath()[n]);
-                    Coordinates j2 = this.problem.getCoordinates(S.getPath()[m]);
-
-                    double dist1 = i1.distance(i2);
-                    double dist2 = j1.distance(j2);
-                    double distCross = i1.distance(j2) + j1.distance(i2);
-
-                    // Vérifie si l'échange 2-opt améliore le chemin
-                    if (distCross < dist1 + dist2) {
-                        ameliorable = true;
-                        // Effectue l'échange 2-opt
-                        int[] newPath = Arrays.copyOf(S.getPath(), length);
-                        System.arraycopy(S.getPath(), i + 1, newPath, n + 1, l - i - 1);
-                        System.arraycopy(S.getPath(), l, newPath, i + 1, n - l);
-                        S = new Path(newPath);
-                    }
-
-                    n++;
-                }
-            }
+    /**
+     * Évaporation des phéromones, bornée par tauMin.
+     */
+    private void evaporate() {
+        float[] pheromones = this.pheromones;
+        float keep = (float) (1 - this.RHO);
+        float min = (float) this.tauMin;
+        for (int e = 0; e < pheromones.length; e++) {
+            pheromones[e] = Math.max(pheromones[e] * keep, min);
         }
-
-        return S;
     }
 
-*/
-/**
-     * Effectue la sélection des individus pour la prochaine génération à l'aide du tournoi.
+    /**
+     * Dépôt de phéromones sur les arêtes candidates d'un chemin, borné par tauMax.
      *
-     * @param population     La population actuelle.
-     * @param populationSize La taille de la population.
-     * @return Une nouvelle population sélectionnée pour la prochaine génération.
-     *//*
-
-
-    public ArrayList<Path> selection(ArrayList<Path> population, int populationSize) {
-        ArrayList<Path> newPopulation = new ArrayList<>();
-        for (int i = 0; i < populationSize; i++) {
-            Path P1 = tournamentSelection(population);
-            Path P2 = tournamentSelection(population);
-
-            Path child = crossover(P1, P2);
-            newPopulation.add(child);
+     * @param tour       Le chemin
+     * @param tourLength Sa longueur
+     */
+    private void deposit(int[] tour, double tourLength) {
+        float amount = (float) (1.0 / tourLength);
+        int previous = tour[this.length - 1];
+        for (int city : tour) {
+            this.reinforce(previous, city, amount);
+            this.reinforce(city, previous, amount);
+            previous = city;
         }
-        return newPopulation;
     }
 
-*/
-/**
-     * Sélectionne un individu à partir de la population donnée pour le tournoi.
-     *
-     * @param population La population parmi laquelle choisir un individu pour le tournoi.
-     * @return Le chemin sélectionné pour le tournoi.
-    *//*
-
-
-    private Path tournamentSelection(ArrayList<Path> population) {
-        int tournamentSize = 2;
-        ArrayList<Path> tournament = new ArrayList<>();
-        for (int i = 0; i < tournamentSize; i++) {
-            int randomIndex = random.nextInt(population.size());
-            tournament.add(population.get(randomIndex));
-        }
-
-        Path bestPath = tournament.get(0);
-        for (Path path : tournament) {
-            if (evaluation.evaluate(path) < evaluation.evaluate(bestPath)) {
-                bestPath = path;
+    private void reinforce(int from, int to, float amount) {
+        int base = from * this.k;
+        for (int c = 0; c < this.k; c++) {
+            if (this.candidates[base + c] == to) {
+                this.pheromones[base + c] = Math.min(this.pheromones[base + c] + amount, (float) this.tauMax);
+                return;
             }
         }
-        return bestPath;
     }
 
-*/
-/**
-     * Effectue l'opérateur de croisement sur deux chemins donnés.
-     *
-     * @param P1 Le premier chemin pour le croisement.
-     * @param P2 Le deuxième chemin pour le croisement.
-     * @return Le chemin résultant du croisement des deux chemins donnés.
-     *//*
-
-
-    private Path crossover(Path P1, Path P2) {
-        int crossoverPoint = random.nextInt(length - 1) + 1; // Choix d'un point de croisement aléatoire
-        int[] childPath = new int[length];
+    /**
+     * Recalcule l'information de choix de chaque arête candidate.
+     */
+    private void updateChoice() {
+        for (int e = 0; e < this.choice.length; e++) {
+            double tau = this.ALPHA == 1.0 ? this.pheromones[e] : Math.pow(this.pheromones[e], this.ALPHA);
+            this.choice[e] = (float) (tau * this.heuristic[e]);
+        }
+    }
 
-        System.arraycopy(P1.getPath(), 0, childPath, 0, crossoverPoint);
-        boolean[] used = new boolean[length];
-        for (int i = 0; i < crossoverPoint; i++) {
-            used[P1.getPath()[i]] = true;
+    /**
+     * Tampons et moteurs d'un thread : générateur, villes non visitées, recherche locale.
+     */
+    private final class Ant {
+        private final Random random = new Random(); // Générateur réinitialisé pour chaque fourmi
+        private final KdTree.Search search = problem.getKdTree().newSearch(); // Villes non visitées
+        private final double[] weights = new double[k]; // Poids des candidats de la ville courante
+        private final TwoOpt twoOpt = new TwoOpt(problem); // Moteur de recherche locale 2-opt
+        private final OrOpt orOpt = new OrOpt(problem); // Moteur de recherche locale Or-opt
+
+        Ant() {
+            // Recherches locales interrompues à l'épuisement du budget
+            this.twoOpt.setBudget(budget);
+            this.orOpt.setBudget(budget);
         }
 
-        int j = crossoverPoint;
-        for (int i = crossoverPoint; i < length; i++) {
-            int nextCity = -1;
-            for (int k = 0; k < length; k++) {
-                if (!used[P2.getPath()[k]]) {
-                    nextCity = P2.getPath()[k];
-                    break;
+        /**
+         * Construit le chemin d'une fourmi par la règle proportionnelle, restreinte aux candidats.
+         *
+         * @param seed Graine de la fourmi
+         * @param tour Tableau qui reçoit le chemin
+         * @return La longueur du chemin
+         */
+        double construct(long seed, int[] tour) {
+            Random random = this.random;
+            random.setSeed(seed);
+            KdTree.Search search = this.search;
+            search.reset();
+            int city = random.nextInt(length);
+            tour[0] = city;
+            search.remove(city);
+            double total = 0;
+            for (int i = 1; i < length; i++) {
+                int base = city * k;
+                double sum = 0;
+                for (int c = 0; c < k; c++) {
+                    double weight = search.isRemoved(candidates[base + c]) ? 0 : choice[base + c];
+                    this.weights[c] = weight;
+                    sum += weight;
                 }
+                int next;
+                if (sum > 0) {
+                    // Roulette sur les candidats non visités
+                    double r = random.nextDouble() * sum;
+                    int chosen = -1;
+                    for (int c = 0; c < k; c++) {
+                        if (this.weights[c] > 0) {
+                            chosen = c;
+                            r -= this.weights[c];
+                            if (r < 0) break;
+                        }
+                    }
+                    next = candidates[base + chosen];
+                } else {
+                    next = search.nearest(city);
+                }
+                total += problem.distance(city, next);
+                tour[i] = next;
+                search.remove(next);
+                city = next;
             }
-            childPath[i] = nextCity;
-            used[nextCity] = true;
-            j++;
+            return total + problem.distance(city, tour[0]);
         }
 
-        return new Path(childPath);
-    }
-
-*/
-/**
-     * Applique l'opérateur de mutation sur une population donnée avec une probabilité donnée.
-     *
-     * @param population   La population sur laquelle appliquer l'opérateur de mutation.
-     * @param mutationRate Le taux de mutation.
-     * @return La population résultant de l'application de l'opérateur de mutation.
-     *//*
-
-
-    public ArrayList<Path> mutation(ArrayList<Path> population, double mutationRate) {
-        for (Path path : population) {
-            if (random.nextDouble() < mutationRate) {
-                int index1 = random.nextInt(length);
-                int index2 = (index1 + random.nextInt(length - 1) + 1) % length; // Assure des indices différents
-                int temp = path.getPath()[index1];
-                path.getPath()[index1] = path.getPath()[index2];
-                path.getPath()[index2] = temp;
+        /**
+         * Plus proche voisin à partir d'une ville.
+         *
+         * @param start Ville de départ
+         * @param tour  Tableau qui reçoit le chemin
+         * @return La longueur du chemin
+         */
+        double greedy(int start, int[] tour) {
+            KdTree.Search search = this.search;
+            search.reset();
+            tour[0] = start;
+            search.remove(start);
+            double total = 0;
+            for (int i = 1; i < length; i++) {
+                int next = search.nearest(tour[i - 1]);
+                total += problem.distance(tour[i - 1], next);
+                tour[i] = next;
+                search.remove(next);
             }
+            return total + problem.distance(tour[length - 1], start);
         }
-        return population;
-    }
 
-*/
-/**
-     * Applique l'algorithme du recuit simulé (SA) pour optimiser une solution initiale.
-     *
-     * @param initialSolution La solution initiale à optimiser.
-     * @return La solution optimisée.
-     *//*
-
-
-    public Path simulatedAnnealing(Path initialSolution) {
-        Path currentSolution = initialSolution;
-        double temperature = TEMPERATURE;
-
-        for (int i = 0; i < MAX_ITERATIONS; i++) {
-            Path newSolution = getNeighbor(currentSolution);
-            double deltaE = evaluation.evaluate(currentSolution) - evaluation.evaluate(newSolution);
-
-            // Accepte une solution pire avec une probabilité basée sur la température
-            if (deltaE < 0 || Math.exp(-deltaE / temperature) > random.nextDouble()) {
-                currentSolution = newSolution;
-            }
-
-            temperature *= COOLING_RATE;
+        /**
+         * Recherche locale 2-opt puis Or-opt.
+         *
+         * @param tour Le chemin, modifié sur place
+         * @return Le gain obtenu
+         */
+        double polish(int[] tour) {
+            return this.twoOpt.optimize(tour) + this.orOpt.optimize(tour);
         }
-
-        return currentSolution;
-    }
-
-*/
-/**
-     * Génère un voisin de la solution donnée en effectuant un simple échange de villes.
-     *
-     * @param solution La solution actuelle.
-     * @return Un voisin de la solution actuelle.
-     *//*
-
-
-    private Path getNeighbor(Path solution) {
-        int index1 = random.nextInt(length);
-        int index2 = (index1 + random.nextInt(length - 1) + 1) % length; // Assure des indices différents
-
-        // Échange deux villes pour créer un voisin
-        int[] newPath = Arrays.copyOf(solution.getPath(), length);
-        int temp = newPath[index1];
-        newPath[index1] = newPath[index2];
-        newPath[index2] = temp;
-
-        return new Path(newPath);
     }
 }
-*/
@@ -0,0 +1,357 @@
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import tsp.evaluation.NeighbourLists;
+import tsp.evaluation.Problem;
+
+/**
+ * Croisement EAX (Edge Assembly Crossover).
+ * Les arêtes propres à chaque parent sont décomposées en AB-cycles (alternance d'arêtes de A et de B).
+ * Chaque enfant candidat part de A, applique un AB-cycle (E-set : arêtes de A retirées, arêtes de B ajoutées),
+ * puis fusionne les sous-tours obtenus par échanges 2-opt guidés par les listes de voisins.
+ * Le meilleur candidat est retenu ; sa variation de longueur par rapport à A est connue sans réévaluation.
+ * Une instance n'est pas partagée entre threads.
+ */
+public class Eax {
+    private static final int NEIGHBOURS = 10; // Nombre de voisins examinés pour fusionner les sous-tours
+
+    private final Problem problem; // Le problème
+    private final int length; // Nombre de villes
+    private final int[][] neighbours; // Listes des plus proches voisins
+
+    private final int[] adjacencyA; // Voisins de chaque ville dans A (2 par ville)
+    private final int[] adjacencyB; // Voisins de chaque ville dans B
+    private final int[] remainingA; // Arêtes de A pas encore utilisées par un AB-cycle
+    private final int[] remainingB; // Arêtes de B pas encore utilisées par un AB-cycle
+    private final int[] child; // Voisins de chaque ville dans l'enfant en construction
+    private final int[] best; // Voisins de chaque ville dans le meilleur enfant
+
+    private final int[] path; // Chemin alterné en cours de construction (villes)
+    private final int[][] occurrence; // Position de chaque ville dans le chemin, selon la parité
+    private int[] cycles; // AB-cycles stockés à la suite
+    private int[] cycleStarts; // Début de chaque AB-cycle dans cycles (cycleStarts[nbCycles] = fin)
+    private int nbCycles; // Nombre d'AB-cycles
+    private int[] order; // Indices des AB-cycles, dans l'ordre où ils sont essayés
+
+    private final int[] component; // Sous-tour de chaque ville
+    private final int[] componentSize; // Taille de chaque sous-tour
+    private final int[] firstMember; // Première ville de chaque sous-tour
+    private final int[] lastMember; // Dernière ville de chaque sous-tour
+    private final int[] nextMember; // Ville suivante dans la liste des villes du même sous-tour (-1 en fin de liste)
+
+    /**
+     * Constructeur de la classe Eax.
+     *
+     * @param problem Le problème
+     */
+    public Eax(Problem problem) {
+        this.problem = problem;
+        this.length = problem.getLength();
+        NeighbourLists lists = problem.getNeighbourLists(NEIGHBOURS);
+        this.neighbours = new int[length][];
+        for (int i = 0; i < length; i++) {
+            this.neighbours[i] = lists.get(i);
+        }
+        this.adjacencyA = new int[2 * length];
+        this.adjacencyB = new int[2 * length];
+        this.remainingA = new int[2 * length];
+        this.remainingB = new int[2 * length];
+        this.child = new int[2 * length];
+        this.best = new int[2 * length];
+        this.path = new int[4 * length + 1];
+        this.occurrence = new int[2][length];
+        this.cycles = new int[4 * length];
+        this.cycleStarts = new int[length + 1];
+        this.order = new int[length];
+        this.component = new int[length];
+        this.componentSize = new int[length];
+        this.firstMember = new int[length];
+        this.lastMember = new int[length];
+        this.nextMember = new int[length];
+    }
+
+    /**
+     * Produit un enfant de A et B : le meilleur parmi au plus maxChildren candidats (un AB-cycle chacun).
+     *
+     * @param a           Premier parent (base de l'enfant)
+     * @param b           Deuxième parent
+     * @param result      Tableau de destination (peut être a lui-même)
+     * @param maxChildren Nombre maximal d'enfants candidats
+     * @param random      Générateur de nombres aléatoires
+     * @return La variation de longueur de l'enfant par rapport à A
+     */
+    public double cross(int[] a, int[] b, int[] result, int maxChildren, Random random) {
+        toAdjacency(a, adjacencyA);
+        toAdjacency(b, adjacencyB);
+        buildCycles(random);
+        double bestDelta = Double.MAX_VALUE;
+        if (nbCycles == 0) {
+            System.arraycopy(adjacencyA, 0, best, 0, 2 * length);
+            bestDelta = 0;
+        }
+        // Choix aléatoire des AB-cycles essayés (mélange partiel de leurs indices)
+        if (order.length < nbCycles) {
+            order = new int[Math.max(nbCycles, 2 * order.length)];
+        }
+        int[] order = this.order;
+        for (int i = 0; i < nbCycles; i++) order[i] = i;
+        int tries = Math.min(maxChildren, nbCycles);
+        for (int t = 0; t < tries; t++) {
+            int k = t + random.nextInt(nbCycles - t);
+            int tmp = order[t];
+            order[t] = order[k];
+            order[k] = tmp;
+            double delta = buildChild(order[t]);
+            if (delta < bestDelta) {
+                bestDelta = delta;
+                System.arraycopy(child, 0, best, 0, 2 * length);
+            }
+        }
+        fromAdjacency(best, result);
+        return bestDelta;
+    }
+
+    /**
+     * Remplit la liste d'adjacence (deux voisins par ville) d'un chemin.
+     *
+     * @param tour      Le chemin
+     * @param adjacency Tableau de destination
+     */
+    private void toAdjacency(int[] tour, int[] adjacency) {
+        for (int i = 0; i < length; i++) {
+            int city = tour[i];
+            adjacency[2 * city] = tour[i == 0 ? length - 1 : i - 1];
+            adjacency[2 * city + 1] = tour[i == length - 1 ? 0 : i + 1];
+        }
+    }
+
+    /**
+     * Reconstruit un chemin à partir d'une liste d'adjacence (un seul cycle).
+     *
+     * @param adjacency La liste d'adjacence
+     * @param tour      Tableau de destination
+     */
+    private void fromAdjacency(int[] adjacency, int[] tour) {
+        int previous = adjacency[0];
+        int city = 0;
+        for (int i = 0; i < length; i++) {
+            tour[i] = city;
+            int next = adjacency[2 * city] == previous ? adjacency[2 * city + 1] : adjacency[2 * city];
+            previous = city;
+            city = next;
+        }
+    }
+
+    private boolean adjacent(int[] adjacency, int u, int v) {
+        return adjacency[2 * u] == v || adjacency[2 * u + 1] == v;
+    }
+
+    /**
+     * Décompose les arêtes non communes en AB-cycles, par une marche aléatoire alternée.
+     *
+     * @param random Générateur de nombres aléatoires
+     */
+    private void buildCycles(Random random) {
+        int pending = 0; // Nombre d'arêtes de A non communes restantes (comptées deux fois)
+        for (int v = 0; v < length; v++) {
+            for (int s = 0; s < 2; s++) {
+                int w = adjacencyA[2 * v + s];
+                remainingA[2 * v + s] = adjacent(adjacencyB, v, w) ? -1 : w;
+                if (remainingA[2 * v + s] >= 0) pending++;
+                w = adjacencyB[2 * v + s];
+                remainingB[2 * v + s] = adjacent(adjacencyA, v, w) ? -1 : w;
+            }
+            occurrence[0][v] = -1;
+            occurrence[1][v] = -1;
+        }
+        nbCycles = 0;
+        cycleStarts[0] = 0;
+        int start = 0;
+        while (pending > 0) {
+            while (remainingA[2 * start] < 0 && remainingA[2 * start + 1] < 0) start++;
+            int size = 0;
+            path[size] = start;
+            occurrence[0][start] = 0;
+            while (true) {
+                int v = path[size];
+                int[] remaining = size % 2 == 0 ? remainingA : remainingB;
+                int slot = 2 * v;
+                if (remaining[slot] < 0 || (remaining[slot + 1] >= 0 && random.nextBoolean())) slot++;
+                int w = remaining[slot];
+                remaining[slot] = -1;
+                remaining[2 * w + (remaining[2 * w] == v ? 0 : 1)] = -1;
+                if (size % 2 == 0) pending -= 2;
+                size++;
+                path[size] = w;
+                int parity = size % 2;
+                int previous = occurrence[parity][w];
+                if (previous < 0) {
+                    occurrence[parity][w] = size;
+                    continue;
+                }
+                // Cycle fermé entre les positions previous et size
+                extractCycle(previous, size);
+                for (int i = previous + 1; i < size; i++) {
+                    occurrence[i % 2][path[i]] = -1;
+                }
+                size = previous;
+                // Retour au départ sans arête de A disponible : nouvelle marche
+                if (size == 0 && remainingA[2 * start] < 0 && remainingA[2 * start + 1] < 0) {
+                    occurrence[0][start] = -1;
+                    break;
+                }
+            }
+        }
+    }
+
+    /**
+     * Enregistre l'AB-cycle path[i..j] en le faisant commencer par une arête de A.
+     *
+     * @param i Position de début
+     * @param j Position de fin (même ville que i)
+     */
+    private void extractCycle(int i, int j) {
+        int size = j - i;
+        int from = cycleStarts[nbCycles];
+        if (from + size > cycles.length) {
+            cycles = Arrays.copyOf(cycles, 2 * (from + size));
+        }
+        if (i % 2 == 0) {
+            System.arraycopy(path, i, cycles, from, size);
+        } else {
+            System.arraycopy(path, i + 1, cycles, from, size - 1);
+            cycles[from + size - 1] = path[i];
+        }
+        nbCycles++;
+        if (nbCycles >= cycleStarts.length) {
+            cycleStarts = Arrays.copyOf(cycleStarts, 2 * cycleStarts.length);
+        }
+        cycleStarts[nbCycles] = from + size;
+    }
+
+    private void replace(int[] adjacency, int u, int oldNeighbour, int newNeighbour) {
+        int slot = adjacency[2 * u] == oldNeighbour ? 2 * u : 2 * u + 1;
+        adjacency[slot] = newNeighbour;
+    }
+
+    /**
+     * Construit l'enfant A + AB-cycle, fusionne ses sous-tours.
+     *
+     * @param cycle Indice de l'AB-cycle
+     * @return La variation de longueur par rapport à A
+     */
+    private double buildChild(int cycle) {
+        Problem problem = this.problem;
+        System.arraycopy(adjacencyA, 0, child, 0, 2 * length);
+        int from = cycleStarts[cycle];
+        int to = cycleStarts[cycle + 1];
+        double delta = 0;
+        // Retrait des arêtes de A (positions paires), puis ajout des arêtes de B (positions impaires)
+        for (int i = from; i < to; i += 2) {
+            int u = cycles[i];
+            int v = cycles[i + 1];
+            replace(child, u, v, -1);
+            replace(child, v, u, -1);
+            delta -= problem.distance(u, v);
+        }
+        for (int i = from + 1; i < to; i += 2) {
+            int u = cycles[i];
+            int v = cycles[i + 1 == to ? from : i + 1];
+            replace(child, u, -1, v);
+            replace(child, v, -1, u);
+            delta += problem.distance(u, v);
+        }
+        return delta + mergeSubtours();
+    }
+
+    /**
+     * Numérote les sous-tours de l'enfant puis fusionne toujours le plus petit avec un voisin.
+     *
+     * @return Le coût des fusions
+     */
+    private double mergeSubtours() {
+        int nbComponents = 0;
+        Arrays.fill(component, -1);
+        for (int start = 0; start < length; start++) {
+            if (component[start] >= 0) continue;
+            int size = 0;
+            int previous = child[2 * start];
+            int city = start;
+            firstMember[nbComponents] = start;
+            do {
+                component[city] = nbComponents;
+                size++;
+                int next = child[2 * city] == previous ? child[2 * city + 1] : child[2 * city];
+                nextMember[city] = next == start ? -1 : next;
+                previous = city;
+                city = next;
+            } while (city != start);
+            lastMember[nbComponents] = previous;
+            componentSize[nbComponents++] = size;
+        }
+        double cost = 0;
+        for (int remaining = nbComponents; remaining > 1; remaining--) {
+            int smallest = -1;
+            for (int c = 0; c < nbComponents; c++) {
+                if (componentSize[c] > 0 && (smallest < 0 || componentSize[c] < componentSize[smallest])) smallest = c;
+            }
+            cost += mergeComponent(smallest);
+        }
+        return cost;
+    }
+
+    /**
+     * Fusionne un sous-tour avec un autre par le meilleur échange de deux arêtes trouvé.
+     *
+     * @param target Le sous-tour à fusionner
+     * @return Le coût de la fusion
+     */
+    private double mergeComponent(int target) {
+        Problem problem = this.problem;
+        double bestCost = Double.MAX_VALUE;
+        int bestU = -1, bestU2 = -1, bestV = -1, bestV2 = -1;
+        for (int pass = 0; pass < 2 && bestU < 0; pass++) {
+            for (int u = firstMember[target]; u >= 0; u = nextMember[u]) {
+                int[] candidates = neighbours[u];
+                int count = pass == 0 ? candidates.length : length;
+                for (int c = 0; c < count; c++) {
+                    int v = pass == 0 ? candidates[c] : c;
+                    if (component[v] == target) continue;
+                    for (int su = 0; su < 2; su++) {
+                        int u2 = child[2 * u + su];
+                        double removedU = problem.distance(u, u2);
+                        for (int sv = 0; sv < 2; sv++) {
+                            int v2 = child[2 * v + sv];
+                            double base = problem.distance(v, v2) + removedU;
+                            double cost = problem.distance(u, v) + problem.distance(u2, v2) - base;
+                            if (cost < bestCost) {
+                                bestCost = cost;
+                                bestU = u; bestU2 = u2; bestV = v; bestV2 = v2;
+                            }
+                            cost = problem.distance(u, v2) + problem.distance(u2, v) - base;
+                            if (cost < bestCost) {
+                                bestCost = cost;
+                                bestU = u; bestU2 = u2; bestV = v2; bestV2 = v;
+                            }
+                        }
+                    }
+                }
+            }
+        }
+        // Retire (u, u2) et (v, v2), ajoute (u, v) et (u2, v2)
+        replace(child, bestU, bestU2, bestV);
+        replace(child, bestU2, bestU, bestV2);
+        replace(child, bestV, bestV2, bestU);
+        replace(child, bestV2, bestV, bestU2);
+        // Les villes du sous-tour rejoignent l'autre, et sa liste est accrochée à la fin de celle de l'autre
+        int other = component[bestV];
+        for (int u = firstMember[target]; u >= 0; u = nextMember[u]) component[u] = other;
+        nextMember[lastMember[other]] = firstMember[target];
+        lastMember[other] = lastMember[target];
+        componentSize[other] += componentSize[target];
+        componentSize[target] = 0;
+        return bestCost;
+    }
+}
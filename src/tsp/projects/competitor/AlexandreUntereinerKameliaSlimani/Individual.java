@@ -0,0 +1,56 @@
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
+
+import tsp.evaluation.Path;
+
+/**
+ * Individu de la population : un chemin et sa longueur, mise en cache.
+ * Les opérateurs qui modifient le chemin mettent à jour la longueur avec la variation
+ * qu'ils ont calculée, sans réévaluer tout le chemin.
+ */
+public class Individual {
+    private final Path path; // Chemin de l'individu
+    private double length; // Longueur du chemin
+
+    /**
+     * Constructeur de la classe Individual.
+     *
+     * @param path   Le chemin
+     * @param length Sa longueur
+     */
+    public Individual(Path path, double length) {
+        this.path = path;
+        this.length = length;
+    }
+
+    /**
+     * @return Le chemin de l'individu
+     */
+    public Path getPath() {
+        return this.path;
+    }
+
+    /**
+     * @return La longueur du chemin
+     */
+    public double getLength() {
+        return this.length;
+    }
+
+    /**
+     * Remplace la longueur (par exemple après une évaluation complète).
+     *
+     * @param length La nouvelle longueur
+     */
+    public void setLength(double length) {
+        this.length = length;
+    }
+
+    /**
+     * Met à jour la longueur après une modification du chemin.
+     *
+     * @param delta Variation de la longueur
+     */
+    public void update(double delta) {
+        this.length += delta;
+    }
+}
@@ -0,0 +1,234 @@
+package tsp.projects.competitor.AlexandreUntereinerKameliaSlimani;
+
+import tsp.evaluation.Evaluation;
+import tsp.evaluation.KdTree;
+import tsp.evaluation.NeighbourLists;
+import tsp.evaluation.Path;
+import tsp.projects.CompetitorProject;
+import tsp.projects.InvalidProjectException;
+import tsp.solver.ArrayTour;
+import tsp.solver.OrOpt;
+import tsp.solver.TwoOpt;
+
+/**
+ * Recuit simulé sur une seule tournée, modifiée sur place.
+ * Les mouvements (2-opt et Or-opt vers un des plus proches voisins) sont évalués en temps constant
+ * et appliqués seulement s'ils sont acceptés.
+ * La température décroît géométriquement selon la fraction du temps d'exécution écoulée,
+ * si bien que le refroidissement se termine avant la fin du temps imparti, quel que soit le problème.
+ */
+public class RecuitSimule extends CompetitorProject {
+    private final int K = 8; // Nombre de voisins candidats par ville
+    private final int CHUNK = 1 << 16; // Nombre de mouvements entre deux lectures de l'horloge
+    private final double INITIAL_ACCEPTANCE = 0.3; // Probabilité initiale d'accepter une dégradation moyenne
+    private final double FINAL_ACCEPTANCE = 1e-12; // Probabilité finale d'accepter une dégradation moyenne
+    private final double COOLING_END = 0.9; // Fraction du temps à laquelle le refroidissement se termine
+
+    private int length; // Nombre de villes
+    private int k; // Nombre effectif de voisins candidats
+    private int[] neighbours; // Voisins candidats de chaque ville (k par ville, à la suite)
+    private double[] neighbourDistances; // Distance de chaque ville à ses voisins candidats
+    private ArrayTour tour; // Tournée courante
+    private double current; // Longueur de la tournée courante
+    private int[] path; // Tableau de publication
+    private long seed; // État du générateur xorshift
+    private double initialTemperature; // Température de départ
+    private double finalTemperature; // Température d'arrivée
+    private long duration; // Durée du refroidissement (ns de temps processeur)
+    private boolean polished; // Indique si la recherche locale finale a été faite
+    private boolean done; // Indique s'il n'y a plus rien à faire (trop peu de villes pour les mouvements)
+
+    /**
+     * Constructeur de la classe RecuitSimule.
+     *
+     * @param evaluation L'instance de l'évaluation
+     * @throws InvalidProjectException Si le projet est invalide
+     */
+    public RecuitSimule(Evaluation evaluation) throws InvalidProjectException {
+        super(evaluation);
+        setMethodName("Recuit simulé");
+        setAuthors("Alexandre Untereiner", "Kamelia Slimani");
+    }
+
+    /**
+     * Tournée initiale (plus proche voisin puis 2-opt), listes de candidats et températures.
+     */
+    @Override
+    public void initialization() {
+        this.duration = (long) (this.budget.getLimit() * this.COOLING_END);
+        this.length = this.problem.getLength();
+        this.seed = System.nanoTime() | 1;
+        NeighbourLists lists = this.problem.getNeighbourLists(this.K);
+        this.k = lists.getK();
+        this.neighbours = new int[this.length * this.k];
+        this.neighbourDistances = new double[this.length * this.k];
+        for (int i = 0; i < this.length; i++) {
+            System.arraycopy(lists.get(i), 0, this.neighbours, i * this.k, this.k);
+            for (int c = 0; c < this.k; c++) {
+                this.neighbourDistances[i * this.k + c] = this.problem.distance(i, this.neighbours[i * this.k + c]);
+            }
+        }
+
+        this.path = new int[this.length];
+        KdTree.Search search = this.problem.getKdTree().newSearch();
+        this.path[0] = this.nextInt(this.length);
+        search.remove(this.path[0]);
+        for (int i = 1; i < this.length; i++) {
+            this.path[i] = search.nearest(this.path[i - 1]);
+            search.remove(this.path[i]);
+        }
+        new TwoOpt(this.problem).optimize(this.path);
+        this.current = this.evaluation.evaluate(new Path(this.path));
+        this.done = this.length < 8;
+        this.tour = new ArrayTour(this.length);
+        this.tour.load(this.path);
+
+        // Températures d'après la dégradation moyenne d'un échantillon de mouvements
+        double sum = 0;
+        int count = 0;
+        for (int i = 0; i < 10000 && !this.done; i++) {
+            double delta = this.sample();
+            if (delta > 0 && delta < Double.MAX_VALUE) {
+                sum += delta;
+                count++;
+            }
+        }
+        double average = count == 0 ? 1 : sum / count;
+        this.initialTemperature = -average / Math.log(this.INITIAL_ACCEPTANCE);
+        this.finalTemperature = -average / Math.log(this.FINAL_ACCEPTANCE);
+    }
+
+    /**
+     * CHUNK mouvements à température fixe, puis publication si la tournée courante est la meilleure.
+     */
+    @Override
+    public void loop() {
+        if (this.done) {
+            return;
+        }
+        double fraction = this.budget.getConsumed() / (double) this.duration; // Part du budget consommée
+        if (fraction >= 1 && !this.polished) {
+            // Fin du refroidissement : recherche locale sur la tournée courante
+            this.tour.store(this.path);
+            this.current -= new TwoOpt(this.problem).optimize(this.path);
+            this.current -= new OrOpt(this.problem).optimize(this.path);
+            this.tour.load(this.path);
+            this.polished = true;
+        }
+        double temperature = this.initialTemperature * Math.pow(this.finalTemperature / this.initialTemperature, Math.min(fraction, 1));
+        for (int i = 0; i < this.CHUNK; i++) {
+            this.step(temperature);
+        }
+        if (this.current < this.evaluation.getBestEvaluation()) {
+            this.tour.store(this.path);
+            // Longueur exacte, sans les erreurs d'arrondi accumulées par les variations
+            this.current = this.evaluation.evaluate(new Path(this.path));
+        }
+    }
+
+    /**
+     * Générateur xorshift64*.
+     *
+     * @param bound Borne supérieure (exclue)
+     * @return Un entier dans [0, bound[
+     */
+    private int nextInt(int bound) {
+        long x = this.seed;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        this.seed = x;
+        return (int) ((((x * 0x2545F4914F6CDD1DL) >>> 32) * bound) >>> 32);
+    }
+
+    /**
+     * @return Un réel dans [0, 1[
+     */
+    private double nextDouble() {
+        long x = this.seed;
+        x ^= x >>> 12;
+        x ^= x << 25;
+        x ^= x >>> 27;
+        this.seed = x;
+        return ((x * 0x2545F4914F6CDD1DL) >>> 11) * 0x1.0p-53;
+    }
+
+    /**
+     * Variation d'un mouvement aléatoire, sans l'appliquer (estimation des températures).
+     *
+     * @return La variation de longueur
+     */
+    private double sample() {
+        return this.step(Double.NaN);
+    }
+
+    /**
+     * Tire un mouvement aléatoire et l'applique s'il est accepté.
+     *
+     * @param temperature Température courante (NaN : le mouvement n'est jamais appliqué)
+     * @return La variation de longueur du mouvement (Double.MAX_VALUE s'il est impossible)
+     */
+    private double step(double temperature) {
+        ArrayTour tour = this.tour;
+        int a = this.nextInt(this.length);
+        int candidate = a * this.k + this.nextInt(this.k);
+        int c = this.neighbours[candidate];
+        double ac = this.neighbourDistances[candidate];
+        int random = this.nextInt(4);
+        if (random < 2) {
+            // 2-opt : supprime (a, b) et (c, d), ajoute (a, c) et (b, d)
+            boolean forward = random == 0;
+            int b = forward ? tour.next(a) : tour.prev(a);
+            int d = forward ? tour.next(c) : tour.prev(c);
+            if (b == c || d == a) return Double.MAX_VALUE;
+            double delta = ac + this.problem.distance(b, d)
+                    - this.problem.distance(a, b) - this.problem.distance(c, d);
+            if (this.accept(delta, temperature)) {
+                tour.twoOptMove(a, b, c, d);
+                this.current += delta;
+            }
+            return delta;
+        }
+        // Or-opt : le segment de 1 à 3 villes commençant en a est inséré à côté de c
+        int size = 1 + this.nextInt(3);
+        int first = a;
+        int last = a;
+        for (int i = 1; i < size; i++) last = tour.next(last);
+        if (tour.between(first, c, last)) return Double.MAX_VALUE;
+        int p = tour.prev(first);
+        int n = tour.next(last);
+        int u, v;
+        if (random == 2) {
+            u = c;
+            v = tour.next(c);
+        } else {
+            u = tour.prev(c);
+            v = c;
+        }
+        if (u == last || v == first) return Double.MAX_VALUE;
+        double removal = this.problem.distance(p, first) + this.problem.distance(last, n) - this.problem.distance(p, n);
+        double uv = this.problem.distance(u, v);
+        double straight = (u == c ? ac : this.problem.distance(u, first)) + this.problem.distance(last, v) - uv;
+        double reversed = this.problem.distance(u, last) + (v == c ? ac : this.problem.distance(first, v)) - uv;
+        boolean reverse = reversed < straight;
+        double delta = (reverse ? reversed : straight) - removal;
+        if (this.accept(delta, temperature)) {
+            tour.moveSegment(first, last, u, v, reverse);
+            this.current += delta;
+        }
+        return delta;
+    }
+
+    /**
+     * Critère de Metropolis.
+     *
+     * @param delta       Variation de longueur
+     * @param temperature Température courante
+     * @return Indique si le mouvement est accepté
+     */
+    private boolean accept(double delta, double temperature) {
+        if (delta <= 0) return temperature == temperature; // NaN : échantillonnage seulement
+        if (!(delta < 30 * temperature)) return false; // Probabilité négligeable (ou échantillonnage)
+        return this.nextDouble() < Math.exp(-delta / temperature);
+    }
+}
@@ -2,8 +2,8 @@ package tsp.projects.demo.greedy;
 
 import java.util.Random;
 
-import tsp.evaluation.Coordinates;
 import tsp.evaluation.Evaluation;
+import tsp.evaluation.KdTree;
 import tsp.evaluation.Path;
 import tsp.projects.InvalidProjectException;
 import tsp.projects.DemoProject;
@@ -17,6 +17,7 @@ public class Greedy extends DemoProject
 	private Random random;
 	private Path path;
 	private int length;
+	private KdTree.Search search;
 
 	/**
 	 * Méthode d'évaluation de la solution
@@ -33,30 +34,15 @@ public class Greedy extends DemoProject
 	private Path gluttonDeterministicPath (int length)
 	{
 		int [] path = new int [length];
-		boolean [] used = new boolean [length];
+		this.search.reset ();
 		int init = this.random.nextInt (length);
 		path [0] = init;
-		used [init] = true;
+		this.search.remove (init);
 		for (int i = 1; i < length; i++)
 		{
-			Coordinates current = this.problem.getCoordinates (path [i - 1]);
-			double minDist = Double.MAX_VALUE;
-			int nn = -1;
-			for (int j = 0; j < length; j++)
-			{
-				if (!used [j])
-				{
-					Coordinates tmp = this.problem.getCoordinates (j);
-					double dist = current.distance (tmp);
-					if (dist < minDist)
-					{
-						minDist = dist;
-						nn = j;
-					}
-				}
-			}
+			int nn = this.search.nearest (path [i - 1]);
 			path [i] = nn;
-			used [nn] = true;
+			this.search.remove (nn);
 		}
 		return new Path (path);
 	}
@@ -66,6 +52,7 @@ public class Greedy extends DemoProject
 	{
 		this.random = new Random ();
 		this.length = this.problem.getLength ();
+		this.search = this.problem.getKdTree ().newSearch ();
 	}
 
 	@Override
@@ -0,0 +1,119 @@
+package tsp.run;
+
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.Semaphore;
+
+import tsp.evaluation.ProblemHandle;
+import tsp.evaluation.Solution;
+import tsp.projects.Project;
+
+/**
+ * @author Alexandre Blansché
+ * Campagne d'évaluation : toutes les exécutions (projet × problème × exécution) sont soumises, dans l'ordre,
+ * à un groupe de threads de taille fixe, et leurs résultats sont lus dans le même ordre
+ * Chaque exécution a son propre contexte (graphiques, sortie standard) : voir RunContext
+ * Les exécutions d'un projet dont des champs statiques sont remis à zéro ne se chevauchent jamais
+ * En mode Main.FORK, chaque exécution a lieu dans sa propre machine virtuelle : voir ForkedRun
+ * Une exécution dont le thread refuse de s'arrêter échoue, sans arrêter la campagne
+ */
+final class Campaign
+{
+	private final List <Class <? extends Project>> projects;
+	private final List <ProblemHandle> problems;
+	private final int runs;
+	private final boolean charts;
+	private final ExecutorService executor;
+	private final HashMap <Class <?>, Semaphore> exclusive;
+	private final ArrayList <Future <Solution>> results;
+
+	/**
+	 * Constructeur
+	 * @param projects Les projets
+	 * @param problems Les problèmes
+	 * @param runs Nombre d'exécutions par projet et par problème
+	 * @param parallelism Nombre maximal d'exécutions simultanées (les graphiques ne sont affichés que s'il vaut 1)
+	 */
+	Campaign (List <Class <? extends Project>> projects, List <ProblemHandle> problems, int runs, int parallelism)
+	{
+		this.projects = projects;
+		this.problems = problems;
+		this.runs = runs;
+		this.charts = parallelism == 1;
+		this.executor = Executors.newFixedThreadPool (parallelism);
+		this.exclusive = new HashMap <Class <?>, Semaphore> ();
+		for (Class <? extends Project> project: projects)
+			if (!Main.FORK && Main.hasMutableStatics (project))
+				this.exclusive.put (project, new Semaphore (1));
+		this.results = new ArrayList <Future <Solution>> ();
+	}
+
+	/**
+	 * Soumet toutes les exécutions
+	 */
+	void start ()
+	{
+		for (Class <? extends Project> project: this.projects)
+			for (ProblemHandle problem: this.problems)
+				for (int i = 0; i < this.runs; i++)
+				{
+					int run = i;
+					this.results.add (this.executor.submit (() -> this.run (project, problem, run)));
+				}
+	}
+
+	/**
+	 * Attend le résultat d'une exécution
+	 * @param project Indice du projet
+	 * @param problem Indice du problème
+	 * @param run Indice de l'exécution
+	 * @return La solution (null si l'exécution a échoué)
+	 * @throws InterruptedException Si l'attente est interrompue
+	 */
+	Solution getSolution (int project, int problem, int run) throws InterruptedException
+	{
+		int index = (project * this.problems.size () + problem) * this.runs + run;
+		try
+		{
+			return this.results.get (index).get ();
+		}
+		catch (ExecutionException e)
+		{
+			e.getCause ().printStackTrace ();
+			return null;
+		}
+	}
+
+	/**
+	 * Libère les threads une fois tous les résultats lus
+	 */
+	void shutdown ()
+	{
+		this.executor.shutdown ();
+	}
+
+	private Solution run (Class <? extends Project> project, ProblemHandle problem, int run) throws Exception
+	{
+		String title = project.toString () + " (" + (run + 1) + ")";
+		if (Main.FORK)
+			return ForkedRun.run (project, problem, title);
+		Semaphore lock = this.exclusive.get (project);
+		if (lock != null)
+			lock.acquire ();
+		try
+		{
+			Main.resetStatics (project);
+			return Main.run (project, problem.get (), title, this.charts, Main.getNbSeconds ());
+		}
+		finally
+		{
+			if (lock != null)
+				lock.release ();
+		}
+	}
+}
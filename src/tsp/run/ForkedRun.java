@@ -0,0 +1,206 @@
+package tsp.run;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.TimeoutException;
+
+import tsp.evaluation.EvaluationStatistics;
+import tsp.evaluation.EvaluationStatistics.Improvement;
+import tsp.evaluation.Problem;
+import tsp.evaluation.ProblemHandle;
+import tsp.evaluation.Solution;
+
+/**
+ * @author Alexandre Blansché
+ * Exécution d'un projet dans une machine virtuelle fille (mode Main.FORK) : chaque exécution part
+ * d'une machine neuve, avec les options fixes Main.FORK_OPTIONS (tas, ramasse-miettes), et d'éventuelles
+ * secondes de chauffe (Main.WARMUP_SECONDS) sur le même problème avant l'exécution mesurée
+ * Les champs statiques n'ont pas à être remis à zéro, et les mesures ne dépendent pas des projets évalués avant
+ * Le résultat revient par la sortie standard de la fille, sur une ligne préfixée par ForkedRun.RESULT,
+ * précédée des statistiques de l'évaluation (ForkedRun.STATISTICS) ; les autres lignes sont recopiées
+ * dans la sortie de l'exécution
+ * Une fille qui ne rend pas son résultat à temps est tuée : l'exécution échoue, la campagne continue
+ */
+final class ForkedRun
+{
+	private static final String RESULT = "#tsp-result";
+	private static final String STATISTICS = "#tsp-statistics";
+	private static final String SEPARATOR = "\t";
+	private static final int GRACE_SECONDS = 90;
+
+	private ForkedRun ()
+	{
+	}
+
+	/**
+	 * Lance une exécution dans une machine virtuelle fille et attend son résultat
+	 * @param subClass La classe du projet à évaluer
+	 * @param problem Le problème (la fille le relit par son nom, depuis le même répertoire de travail)
+	 * @param title Titre de l'exécution
+	 * @return La solution rendue par la fille, null si elle n'a rien rendu à temps
+	 * @throws IOException Si la fille ne peut pas être lancée
+	 * @throws InterruptedException Si l'attente est interrompue (la fille est alors tuée)
+	 */
+	static Solution run (Class <?> subClass, ProblemHandle problem, String title) throws IOException, InterruptedException
+	{
+		List <String> command = new ArrayList <String> ();
+		command.add (Paths.get (System.getProperty ("java.home"), "bin", "java").toString ());
+		command.addAll (Arrays.asList (Main.FORK_OPTIONS));
+		command.add ("-cp");
+		command.add (System.getProperty ("java.class.path"));
+		command.add (ForkedRun.class.getName ());
+		command.add (subClass.getName ());
+		command.add (problem.getName ());
+		command.add (title);
+		command.add (Integer.toString (Main.WARMUP_SECONDS));
+		Process process = new ProcessBuilder (command).redirectError (ProcessBuilder.Redirect.INHERIT).start ();
+		long limit = Main.getWallClockSeconds (Main.WARMUP_SECONDS) + Main.getWallClockSeconds (Main.getNbSeconds ()) + ForkedRun.GRACE_SECONDS;
+		// Surveillance : la lecture ci-dessous se termine quand la fille meurt, d'elle-même ou tuée
+		Thread watchdog = new Thread (() ->
+		{
+			try
+			{
+				if (!process.waitFor (limit, TimeUnit.SECONDS))
+					process.destroyForcibly ();
+			}
+			catch (InterruptedException e)
+			{
+				process.destroyForcibly ();
+			}
+		});
+		watchdog.setDaemon (true);
+		watchdog.start ();
+		Solution solution = null;
+		EvaluationStatistics statistics = null;
+		try (BufferedReader in = new BufferedReader (new InputStreamReader (process.getInputStream (), StandardCharsets.UTF_8)))
+		{
+			String line;
+			while ((line = in.readLine ()) != null)
+				if (line.startsWith (ForkedRun.STATISTICS + ForkedRun.SEPARATOR))
+					statistics = ForkedRun.decodeStatistics (line);
+				else if (line.startsWith (ForkedRun.RESULT + ForkedRun.SEPARATOR))
+					solution = ForkedRun.decode (line, statistics);
+				else if (Main.DISPLAY_STD_OUT)
+					System.out.println (line);
+		}
+		finally
+		{
+			watchdog.interrupt ();
+			if (Thread.interrupted ())
+			{
+				process.destroyForcibly ();
+				throw new InterruptedException ();
+			}
+		}
+		process.waitFor ();
+		return solution;
+	}
+
+	/**
+	 * Point d'entrée de la machine virtuelle fille
+	 * @param args Classe du projet, nom du problème, titre de l'exécution, secondes de chauffe
+	 * @throws Exception En cas d'échec de l'exécution (la mère ne reçoit alors aucun résultat)
+	 */
+	public static void main (String [] args) throws Exception
+	{
+		ThreadOutput.install ();
+		PrintStream pipe = ThreadOutput.getOriginal ();
+		Class <?> subClass = Class.forName (args [0]);
+		List <ProblemHandle> handles = Problem.getHandles (ProblemHandle.named (args [1]));
+		if (handles.isEmpty ())
+			throw new IllegalArgumentException ("Problème introuvable : " + args [1]);
+		Problem problem = handles.get (0).get ();
+		String title = args [2];
+		int warmup = Integer.parseInt (args [3]);
+		Solution solution;
+		try
+		{
+			if (warmup > 0)
+			{
+				Main.run (subClass, problem, title + " (chauffe)", false, warmup);
+				Main.resetStatics (subClass);
+			}
+			solution = Main.run (subClass, problem, title, false, Main.getNbSeconds ());
+		}
+		catch (TimeoutException e)
+		{
+			// Thread du projet bloqué : l'exécution échoue sans attendre que la mère tue la fille
+			e.printStackTrace ();
+			System.exit (1);
+			return;
+		}
+		if (solution.getStatistics () != null)
+			pipe.println (ForkedRun.encodeStatistics (solution.getStatistics ()));
+		pipe.println (ForkedRun.encode (solution));
+		pipe.flush ();
+		// Un thread du projet qui refuse de s'arrêter ne doit pas retenir la fille
+		System.exit (0);
+	}
+
+	/**
+	 * Ligne de résultat : préfixe, évaluation, méthode, problème, auteurs
+	 */
+	private static String encode (Solution solution)
+	{
+		StringBuilder line = new StringBuilder (ForkedRun.RESULT);
+		line.append (ForkedRun.SEPARATOR).append (solution.getEvaluation ());
+		line.append (ForkedRun.SEPARATOR).append (ForkedRun.clean (solution.getName ()));
+		line.append (ForkedRun.SEPARATOR).append (ForkedRun.clean (solution.getProblemName ()));
+		for (String author: solution.getAuthors ())
+			line.append (ForkedRun.SEPARATOR).append (ForkedRun.clean (author));
+		return line.toString ();
+	}
+
+	private static Solution decode (String line, EvaluationStatistics statistics)
+	{
+		String [] fields = line.split (ForkedRun.SEPARATOR, -1);
+		double evaluation = Double.parseDouble (fields [1]);
+		ArrayList <String> authors = new ArrayList <String> (Arrays.asList (fields).subList (4, fields.length));
+		return new Solution (authors, fields [2], fields [3], evaluation, statistics);
+	}
+
+	/**
+	 * Ligne de statistiques : préfixe, compteurs, durées, puis quatre champs par amélioration
+	 */
+	private static String encodeStatistics (EvaluationStatistics statistics)
+	{
+		StringBuilder line = new StringBuilder (ForkedRun.STATISTICS);
+		line.append (ForkedRun.SEPARATOR).append (statistics.getNbEvaluations ());
+		line.append (ForkedRun.SEPARATOR).append (statistics.getNbQuickEvaluations ());
+		line.append (ForkedRun.SEPARATOR).append (statistics.getNbDeltaEvaluations ());
+		line.append (ForkedRun.SEPARATOR).append (statistics.getElapsedTime ());
+		line.append (ForkedRun.SEPARATOR).append (statistics.getCpuTime ());
+		for (Improvement improvement: statistics.getImprovements ())
+		{
+			line.append (ForkedRun.SEPARATOR).append (improvement.getElapsedTime ());
+			line.append (ForkedRun.SEPARATOR).append (improvement.getCpuTime ());
+			line.append (ForkedRun.SEPARATOR).append (improvement.getNbEvaluations ());
+			line.append (ForkedRun.SEPARATOR).append (improvement.getEvaluation ());
+		}
+		return line.toString ();
+	}
+
+	private static EvaluationStatistics decodeStatistics (String line)
+	{
+		String [] fields = line.split (ForkedRun.SEPARATOR, -1);
+		List <Improvement> improvements = new ArrayList <Improvement> ();
+		for (int i = 6; i + 3 < fields.length; i += 4)
+			improvements.add (new Improvement (Long.parseLong (fields [i]), Long.parseLong (fields [i + 1]),
+					Long.parseLong (fields [i + 2]), Double.parseDouble (fields [i + 3])));
+		return new EvaluationStatistics (Long.parseLong (fields [1]), Long.parseLong (fields [2]), Long.parseLong (fields [3]),
+				Long.parseLong (fields [4]), Long.parseLong (fields [5]), improvements);
+	}
+
+	private static String clean (String text)
+	{
+		return text == null ? "" : text.replaceAll ("[\\t\\r\\n]", " ");
+	}
+}
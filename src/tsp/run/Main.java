@@ -1,14 +1,12 @@
 package tsp.run;
 
-import java.io.IOException;
-import java.io.OutputStream;
-import java.io.PrintStream;
 import java.lang.reflect.Field;
 import java.lang.reflect.InvocationTargetException;
 import java.util.ArrayList;
 import java.util.Arrays;
 import java.util.Collections;
 import java.util.Set;
+import java.util.concurrent.CancellationException;
 import java.util.concurrent.ExecutionException;
 import java.util.concurrent.ExecutorService;
 import java.util.concurrent.Executors;
@@ -22,8 +20,10 @@ import javassist.Modifier;
 import tsp.output.LogFileOutput;
 import tsp.output.StandardOutput;
 import tsp.output.OutputWriter;
+import tsp.evaluation.Budget;
 import tsp.evaluation.Evaluation;
 import tsp.evaluation.Problem;
+import tsp.evaluation.ProblemHandle;
 import tsp.evaluation.Solution;
 import tsp.projects.CompetitorProject;
 import tsp.projects.Project;
@@ -48,6 +48,17 @@ public final class Main extends OutputWriter
 	static final boolean DISPLAY_STD_OUT = false;
 //	static final boolean COMPETITION = true;
 	static final boolean COMPETITION = false;
+//	static final String [] PROBLEMS = {"bier127", "gr666"};
+	static final String [] PROBLEMS = null;
+//	static final boolean PRELOAD = false;
+	static final boolean PRELOAD = true;
+//	static final int PARALLELISM = Runtime.getRuntime ().availableProcessors ();
+	static final int PARALLELISM = 1;
+//	static final boolean FORK = true;
+	static final boolean FORK = false;
+	static final String [] FORK_OPTIONS = {"-Xms1g", "-Xmx1g", "-XX:+UseParallelGC", "-Djava.awt.headless=true"};
+//	static final int WARMUP_SECONDS = 10;
+	static final int WARMUP_SECONDS = 0;
     
     /**
      * @return Retourne l'instance de Main
@@ -58,40 +69,160 @@ public final class Main extends OutputWriter
             Main.instance = new Main ();
         return Main.instance;
     }
+
+    /**
+     * @return Temps processeur accordé à une exécution, en secondes
+     */
+    public static int getNbSeconds ()
+    {
+        return Main.NB_SECONDS;
+    }
+    
+    /**
+     * Limite en temps réel d'une exécution : deux fois son temps processeur, multiplié par le nombre
+     * d'exécutions qui se partagent chaque processeur
+     * @param seconds Temps processeur accordé, en secondes
+     * @return Temps réel maximal, en secondes
+     */
+    static int getWallClockSeconds (int seconds)
+    {
+        int processors = Runtime.getRuntime ().availableProcessors ();
+        int sharing = Math.max (1, (Main.PARALLELISM + processors - 1) / processors);
+        return 2 * seconds * sharing;
+    }
+    
+    /**
+     * Processeurs réservés à une exécution (voir Budget) : ceux de la machine, partagés entre les
+     * exécutions simultanées
+     * @return Nombre de processeurs, au moins 1
+     */
+    static int getProcessorsPerRun ()
+    {
+        return Math.max (1, Runtime.getRuntime ().availableProcessors () / Main.PARALLELISM);
+    }
     
     private Main ()
     {
     }
 	
-	private static Solution run (Class <?> subClass, Problem problem) throws InterruptedException, ExecutionException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException
+	/**
+	 * @param subClass Classe d'un projet
+	 * @return Indique si la classe a des champs statiques modifiables (remis à zéro avant chaque exécution)
+	 */
+	static boolean hasMutableStatics (Class <?> subClass)
 	{
-		Evaluation evaluation = new Evaluation (problem);
-		Project project = (Project) subClass.getConstructors () [0].newInstance (evaluation);
-		ExecutorService executor = Executors.newSingleThreadExecutor();
-		Future <?> future = executor.submit (project);
-		Solution solution = null;
-		try
+		for (Field field: subClass.getDeclaredFields ())
+		{
+			int modifiers = field.getModifiers ();
+			if (java.lang.reflect.Modifier.isStatic (modifiers) && !java.lang.reflect.Modifier.isFinal (modifiers))
+				return true;
+		}
+		return false;
+	}
+	
+	/**
+	 * Remet à zéro les champs statiques modifiables d'un projet
+	 * @param subClass Classe du projet
+	 * @throws IllegalAccessException Si un champ ne peut pas être modifié
+	 */
+	static void resetStatics (Class <?> subClass) throws IllegalAccessException
+	{
+		Field fields [] = subClass.getDeclaredFields();
+		for (int j = 0; j < fields.length; j++)
 		{
-			if (!Main.DISPLAY_STD_OUT)
+			boolean isStatic = java.lang.reflect.Modifier.isStatic (fields [j].getModifiers());
+			boolean isFinal = java.lang.reflect.Modifier.isFinal (fields [j].getModifiers());
+			if (isStatic && !isFinal)
 			{
-				PrintStream stream = new PrintStream (new OutputStream () {@Override public void write (int b) throws IOException {}}); 
-				System.setOut (stream);
+				
+				fields [j].setAccessible (true);
+				Class<?> type = fields [j].getType ();
+				if (type == boolean.class)
+					fields [j].setBoolean(false, false);
+				else if (type == byte.class)
+					fields [j].setByte (null, (byte) 0);
+				else if (type == char.class)
+					fields [j].setChar(null, ' ');
+				else if (type == double.class)
+					fields [j].setDouble(null, (double) 0);
+				else if (type == float.class)
+					fields [j].setFloat(null, (float) 0);
+				else if (type == int.class)
+					fields [j].setInt(null, 0);
+				else if (type == long.class)
+					fields [j].setLong(null, 0);
+				else if (type == short.class)
+					fields [j].setShort (null, (short) 0);
+				else
+					fields [j].set (null, null);
 			}
-			future.get (Main.NB_SECONDS, TimeUnit.SECONDS);
 		}
-		catch (TimeoutException e)
+	}
+	
+	/**
+	 * Une exécution d'un projet, dans son propre contexte (graphiques et sortie standard)
+	 * @param subClass La classe du projet
+	 * @param problem Le problème
+	 * @param title Titre de l'exécution
+	 * @param charts Indique s'il faut créer les graphiques de l'exécution
+	 * @param seconds Temps processeur accordé à l'exécution (voir Budget)
+	 * @return La meilleure solution à l'échéance (ou à la fin du projet)
+	 * @throws TimeoutException Si le thread du projet ne s'arrête pas : l'exécution échoue, le thread
+	 * continuant en arrière-plan
+	 */
+	static Solution run (Class <?> subClass, Problem problem, String title, boolean charts, int seconds) throws InterruptedException, ExecutionException, TimeoutException, InstantiationException, IllegalAccessException, IllegalArgumentException, InvocationTargetException, SecurityException
+	{
+		Budget budget = new Budget (seconds, Main.getWallClockSeconds (seconds), Main.getProcessorsPerRun ());
+		Evaluation evaluation = new Evaluation (problem, budget);
+		RunContext context = new RunContext (title, problem, charts, Main.DISPLAY_STD_OUT);
+		evaluation.setListener (context);
+		// Groupe des threads de l'exécution : le thread du projet et ceux qu'il crée, dont le budget compte le temps
+		ThreadGroup group = new ThreadGroup (title);
+		Project project;
+		ExecutorService executor;
+		Future <?> future;
+		// La sortie de l'exécution est héritée par le thread du projet, créé lors de la soumission
+		ThreadOutput.set (context.getOut ());
+		try
+		{
+			project = (Project) subClass.getConstructors () [0].newInstance (evaluation);
+			executor = Executors.newSingleThreadExecutor (runnable -> new Thread (group, runnable, title));
+			future = executor.submit (project);
+		}
+		finally
+		{
+			ThreadOutput.set (null);
+		}
+		Future <?> submitted = future;
+		budget.start (group, () -> submitted.cancel (true));
+		Solution solution = null;
+		try
+		{
+			future.get ();
+		}
+		catch (CancellationException e)
 		{
 			executor.shutdownNow ();
-			future.cancel (true);
 			solution = project.getSolution ();
 			if (!executor.awaitTermination (1, TimeUnit.MINUTES))
+				throw new TimeoutException ("Ne peut pas tuer le thread de " + title);
+		}
+		finally
+		{
+			budget.stop ();
+			try
+			{
+				project.termination ();
+			}
+			catch (Exception e)
 			{
-				System.setOut (System.out);
-				System.out.println("\nNe peut pas tuer le thread.\nAnnulation de l'exécution.");
-				System.exit (0);
+				System.out.println (e);
 			}
+			executor.shutdownNow ();
+			context.close ();
 		}
-		System.err.println ("\t" + solution.getEvaluation ());
+		if (solution == null)
+			solution = project.getSolution ();
 		return solution;
 	}
 	
@@ -102,57 +233,27 @@ public final class Main extends OutputWriter
 	 */
 	public static Solution exec (Class <?> subClass, Problem problem)
 	{
-		PrintStream out = System.out;
 		ArrayList <Solution> solutions = new ArrayList <Solution> ();
 		for (int i = 0; i < Main.NB_RUNS; i++)
 			try
 			{
 				String title = subClass.toString() + " (" + (i + 1) + ")";
-				MonitorChart.getNewInstance (title);
-				PathChart.getNewInstance (problem);
-				Field fields [] = subClass.getDeclaredFields();
-				for (int j = 0; j < fields.length; j++)
-				{
-					boolean isStatic = java.lang.reflect.Modifier.isStatic (fields [j].getModifiers());
-					boolean isFinal = java.lang.reflect.Modifier.isFinal (fields [j].getModifiers());
-					if (isStatic && !isFinal)
-					{
-						
-						fields [j].setAccessible (true);
-						Class<?> type = fields [j].getType ();
-						if (type == boolean.class)
-							fields [j].setBoolean(false, false);
-						else if (type == byte.class)
-							fields [j].setByte (null, (byte) 0);
-						else if (type == char.class)
-							fields [j].setChar(null, ' ');
-						else if (type == double.class)
-							fields [j].setDouble(null, (double) 0);
-						else if (type == float.class)
-							fields [j].setFloat(null, (float) 0);
-						else if (type == int.class)
-							fields [j].setInt(null, 0);
-						else if (type == long.class)
-							fields [j].setLong(null, 0);
-						else if (type == short.class)
-							fields [j].setShort (null, (short) 0);
-						else
-							fields [j].set (null, null);
-					}
-				}
-
-				solutions.add (Main.run (subClass, problem));
-
+				Main.resetStatics (subClass);
+				Solution solution = Main.run (subClass, problem, title, true, Main.NB_SECONDS);
+				System.err.println ("\t" + solution.getEvaluation ());
+				solutions.add (solution);
 			}
 			catch (Exception e)
 			{
 				e.printStackTrace();
+				Solution solution = Solution.failed (subClass.getName (), problem);
+				System.err.println ("\téchec : " + solution.getEvaluation ());
+				solutions.add (solution);
 			}
-		System.setOut (out);
 		return new Solution (solutions);
 	}
     
-    private void launch ()
+    private void launch () throws InterruptedException
     {
         this.println ("Évaluation des projets");
         this.print (Main.NB_RUNS + " exécution");
@@ -165,10 +266,15 @@ public final class Main extends OutputWriter
         	this.println ("s");
         else
         	this.println ("");
-        Problem.getProblems ();
-        ArrayList <Problem> problems = Problem.getProblems ();
+        ArrayList <ProblemHandle> problems;
+        if (Main.PROBLEMS == null)
+        	problems = Problem.getHandles ();
+        else
+        	problems = Problem.getHandles (ProblemHandle.named (Main.PROBLEMS));
+        if (Main.PRELOAD)
+        	ProblemHandle.preload (problems);
         int maxLength = 0;
-        for (Problem problem: problems)
+        for (ProblemHandle problem: problems)
         	if (problem.getName().length() > maxLength)
         		maxLength = problem.getName().length();
         ArrayList <ArrayList <Solution>> solutions = new ArrayList <ArrayList <Solution>> ();
@@ -205,21 +311,43 @@ public final class Main extends OutputWriter
         else
         	this.println ("");
         this.print ();
-        for (Class<? extends Project> subClass : subClasses)
+        Campaign campaign = new Campaign (subClasses, problems, Main.NB_RUNS, Main.PARALLELISM);
+        campaign.start ();
+        for (int p = 0; p < subClasses.size (); p++)
         {
-            this.println (subClass.getName ());
+            this.println (subClasses.get (p).getName ());
             for (int i = 0; i <  problems.size (); i++)
             {
-                Problem problem = problems.get (i);
-                this.print (problem.getName ());
-                for (int j = problem.getName ().length(); j < maxLength; j++)
+                String name = problems.get (i).getName ();
+                this.print (name);
+                for (int j = name.length(); j < maxLength; j++)
                 	this.print (" ");
-                Solution solution = Main.exec (subClass, problem);
-                this.println ("\t" + solution.getEvaluation ());
+                ArrayList <Solution> runs = new ArrayList <Solution> ();
+                int failures = 0;
+                for (int r = 0; r < Main.NB_RUNS; r++)
+                {
+                	Solution run = campaign.getSolution (p, i, r);
+                	if (run == null)
+                	{
+                		// Exécution échouée : comptée avec l'évaluation pénalisée
+                		run = Solution.failed (subClasses.get (p).getName (), problems.get (i).get ());
+                		System.err.println ("\téchec : " + run.getEvaluation ());
+                		failures++;
+                	}
+                	else
+                		System.err.println ("\t" + run.getEvaluation ());
+                	runs.add (run);
+                }
+                Solution solution = new Solution (runs);
+                if (failures > 0)
+                	this.println ("\t" + solution.getEvaluation () + " (" + failures + " échec" + (failures > 1 ? "s" : "") + ")");
+                else
+                	this.println ("\t" + solution.getEvaluation ());
                 solutions.get (i).add (solution);
             }
             this.print ();
         }
+        campaign.shutdown ();
         ArrayList <Solution> agg = Solution.aggregate (solutions);
         Collections.sort (agg);
         for (Solution solution: agg)
@@ -232,8 +360,9 @@ public final class Main extends OutputWriter
     /**
      * @param args
      */
-	public static void main (String [] args)
+	public static void main (String [] args) throws InterruptedException
 	{
+        ThreadOutput.install ();
         Main main = Main.getInstance ();
         MainFrame.getInstance();
         main.addOutput (StandardOutput.getInstance ());
@@ -3,6 +3,8 @@ package tsp.run;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 
+import javax.swing.Timer;
+
 import org.jfree.chart.ChartFactory;
 import org.jfree.chart.ChartPanel;
 import org.jfree.chart.JFreeChart;
@@ -13,12 +15,20 @@ import org.jfree.data.time.TimeSeriesCollection;
 /**
  * @author Alexandre Blansché
  * Affichage de la fonction d'évaluation dans le temps
+ * Les threads de calcul déposent seulement la dernière valeur, le graphique est mis à jour
+ * périodiquement par le thread de Swing : l'ajout de données ne bloque jamais
  */
 public class MonitorChart
 {
-	private static MonitorChart instance = null;
+	private static final int REFRESH_DELAY = 100;
+	private static volatile MonitorChart instance = null;
 	private TimeSeries bestEvaluation;
 	private TimeSeries currentEvaluation;
+	private volatile double current;
+	private volatile double best;
+	private volatile boolean updated;
+	private volatile boolean closed;
+	private Timer timer;
 	
 	/**
 	 * @return L'instance courante
@@ -38,11 +48,18 @@ public class MonitorChart
 	 */
 	public static MonitorChart getNewInstance (String title)
 	{
+		MonitorChart previous = MonitorChart.instance;
+		if (previous != null)
+			previous.close ();
 		MonitorChart.instance = new MonitorChart (title);
 		return MonitorChart.instance;
 	}
 	
-	private MonitorChart (String title)
+	/**
+	 * Graphique propre à une exécution (voir RunContext)
+	 * @param title Le titre du graphique
+	 */
+	MonitorChart (String title)
 	{
 		if (Main.DISPLAY_CHART)
 		{
@@ -57,9 +74,38 @@ public class MonitorChart
 			MainFrame mainFrame = MainFrame.getInstance ();
 			mainFrame.add (chartPanel, BorderLayout.NORTH);
 			mainFrame.pack ();
+			this.timer = new Timer (MonitorChart.REFRESH_DELAY, e -> this.refresh ());
+			this.timer.start ();
 		}
 	}
 	
+	private void refresh ()
+	{
+		if (this.closed)
+			this.timer.stop ();
+		else if (this.updated)
+		{
+			this.updated = false;
+			try
+			{
+				Millisecond now = new Millisecond ();
+				this.currentEvaluation.addOrUpdate (now, this.current);
+				this.bestEvaluation.addOrUpdate (now, this.best);
+			}
+			catch (Exception e)
+			{
+			}
+		}
+	}
+	
+	/**
+	 * Arrête les mises à jour du graphique
+	 */
+	void close ()
+	{
+		this.closed = true;
+	}
+	
 	/**
 	 * Ajoute une évaluation à l'affichage graphique
 	 * @param current Évaluation de la solution courante
@@ -69,15 +115,9 @@ public class MonitorChart
 	{
 		if (Main.DISPLAY_CHART)
 		{
-			try
-			{
-				Millisecond now = new Millisecond ();
-				this.currentEvaluation.add (now, current);
-				this.bestEvaluation.add (now, best);
-			}
-			catch (Exception e)
-			{			
-			}
+			this.current = current;
+			this.best = best;
+			this.updated = true;
 		}
 	}
 }
@@ -3,6 +3,8 @@ package tsp.run;
 import java.awt.BorderLayout;
 import java.awt.Dimension;
 
+import java.util.concurrent.atomic.AtomicReference;
+
 import javax.swing.SwingUtilities;
 
 import org.jfree.chart.ChartFactory;
@@ -19,12 +21,14 @@ import tsp.evaluation.Problem;
 /**
  * @author Alexandre Blansché
  * Affichage de la fonction d'évaluation dans le temps
+ * Seul le dernier chemin reçu est dessiné : les changements rapprochés sont fusionnés
  */
 public class PathChart
 {
-	private static PathChart instance = null;
+	private static volatile PathChart instance = null;
 	private Problem problem;
 	private XYSeries coords;
+	private final AtomicReference <Path> pending = new AtomicReference <Path> ();
 
 	/**
 	 * @return L'instance courante
@@ -48,7 +52,11 @@ public class PathChart
 		return PathChart.instance;
 	}
 
-	private PathChart (Problem problem)
+	/**
+	 * Graphique propre à une exécution (voir RunContext)
+	 * @param problem Le problème
+	 */
+	PathChart (Problem problem)
 	{
 		if (Main.DISPLAY_CHART)
 		{
@@ -56,10 +64,9 @@ public class PathChart
 			this.coords = new XYSeries ("Path", false);
 			if (problem != null)
 			{
-				double [][] data = this.problem.getData();
-				for (int i = 0; i < data.length; i++)
-					this.coords.add(data [i][0], data [i][1]);
-				this.coords.add(data [0][0], data [0][1]);
+				for (int i = 0; i < problem.getLength (); i++)
+					this.coords.add(problem.getX (i), problem.getY (i));
+				this.coords.add(problem.getX (0), problem.getY (0));
 			}
 			XYSeriesCollection xysc = new XYSeriesCollection();
 			xysc.addSeries(this.coords);
@@ -77,40 +84,37 @@ public class PathChart
 	}
 
 	/**
-	 * Ajoute une évaluation à l'affichage graphique
-	 * @param current Évaluation de la solution courante
-	 * @param best Évaluation de la meilleure solution
+	 * Affiche un nouveau chemin
+	 * @param path Le chemin, qui ne doit plus être modifié
 	 */
 	public void changePath (Path path)
 	{
-		if (Main.DISPLAY_CHART)
+		if (Main.DISPLAY_CHART && this.pending.getAndSet (path) == null)
 		{
 			try
 			{
-				Runnable updateData = new Runnable ()
-				{
-					public void run ()
-					{
-						try
-						{
-							PathChart chart = PathChart.getInstance ();
-							chart.coords.clear ();
-							int [] p = path.getPath ();
-							double [][] data = chart.problem.getData ();
-							for (int i = 0; i < data.length; i++)
-								chart.coords.add (data [p [i]][0], data [p [i]][1]);
-							chart.coords.add (data [p [0]][0], data [p [0]][1]);
-						}
-						catch (Exception e)
-						{
-						}
-					}
-				};
-				SwingUtilities.invokeLater (updateData);
+				SwingUtilities.invokeLater (() -> this.draw ());
 			}
 			catch (Exception e)
 			{
 			}
 		}
 	}
+	
+	private void draw ()
+	{
+		try
+		{
+			Path path = this.pending.getAndSet (null);
+			this.coords.clear ();
+			int [] p = path.getPath ();
+			Problem problem = this.problem;
+			for (int i = 0; i < p.length; i++)
+				this.coords.add (problem.getX (p [i]), problem.getY (p [i]));
+			this.coords.add (problem.getX (p [0]), problem.getY (p [0]));
+		}
+		catch (Exception e)
+		{
+		}
+	}
 }
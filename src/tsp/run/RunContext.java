@@ -0,0 +1,65 @@
+package tsp.run;
+
+import java.io.PrintStream;
+
+import tsp.evaluation.EvaluationListener;
+import tsp.evaluation.Path;
+import tsp.evaluation.Problem;
+
+/**
+ * @author Alexandre Blansché
+ * Contexte d'une exécution : ses graphiques (s'ils sont affichés) et sa sortie standard
+ * Remplace les instances globales de MonitorChart et PathChart, si bien que plusieurs exécutions
+ * peuvent avoir lieu en même temps
+ */
+final class RunContext implements EvaluationListener
+{
+	private final MonitorChart monitorChart;
+	private final PathChart pathChart;
+	private final PrintStream out;
+
+	/**
+	 * @param title Titre de l'exécution
+	 * @param problem Le problème
+	 * @param charts Indique s'il faut créer les graphiques
+	 * @param display Indique si la sortie standard de l'exécution est affichée (sinon elle est ignorée)
+	 */
+	RunContext (String title, Problem problem, boolean charts, boolean display)
+	{
+		this.monitorChart = charts ? new MonitorChart (title) : null;
+		this.pathChart = charts ? new PathChart (problem) : null;
+		this.out = display ? ThreadOutput.getOriginal () : ThreadOutput.getNull ();
+	}
+
+	/**
+	 * @return La sortie standard de l'exécution
+	 */
+	PrintStream getOut ()
+	{
+		return this.out;
+	}
+
+	@Override
+	public void evaluated (double current, double best)
+	{
+		if (this.monitorChart != null)
+			this.monitorChart.addData (current, best);
+	}
+
+	@Override
+	public void improved (Path best)
+	{
+		if (this.pathChart != null)
+			this.pathChart.changePath (best);
+	}
+
+	/**
+	 * Fin de l'exécution
+	 */
+	void close ()
+	{
+		if (this.monitorChart != null)
+			this.monitorChart.close ();
+		this.out.flush ();
+	}
+}
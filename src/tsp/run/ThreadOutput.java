@@ -0,0 +1,88 @@
+package tsp.run;
+
+import java.io.IOException;
+import java.io.OutputStream;
+import java.io.PrintStream;
+
+/**
+ * @author Alexandre Blansché
+ * Sortie standard aiguillée par thread : chaque exécution écrit dans sa propre sortie,
+ * héritée par les threads qu'elle crée ; les autres threads écrivent dans la sortie d'origine
+ * Remplace l'échange global de System.out, incompatible avec des exécutions simultanées
+ */
+final class ThreadOutput extends OutputStream
+{
+	private static final InheritableThreadLocal <PrintStream> TARGET = new InheritableThreadLocal <PrintStream> ();
+	private static final PrintStream NULL = new PrintStream (new OutputStream () {@Override public void write (int b) {} @Override public void write (byte [] b, int off, int len) {}});
+	private static PrintStream original = null;
+	private final PrintStream fallback;
+
+	private ThreadOutput (PrintStream fallback)
+	{
+		this.fallback = fallback;
+	}
+
+	/**
+	 * Installe l'aiguillage sur System.out (une seule fois)
+	 */
+	static synchronized void install ()
+	{
+		if (ThreadOutput.original == null)
+		{
+			ThreadOutput.original = System.out;
+			System.setOut (new PrintStream (new ThreadOutput (System.out), true));
+		}
+	}
+
+	/**
+	 * @return La sortie standard d'origine
+	 */
+	static PrintStream getOriginal ()
+	{
+		return ThreadOutput.original == null ? System.out : ThreadOutput.original;
+	}
+
+	/**
+	 * @return Une sortie qui ignore tout
+	 */
+	static PrintStream getNull ()
+	{
+		return ThreadOutput.NULL;
+	}
+
+	/**
+	 * Définit la sortie du thread courant, et des threads qu'il créera ensuite
+	 * @param out La sortie (null pour la sortie d'origine)
+	 */
+	static void set (PrintStream out)
+	{
+		if (out == null)
+			ThreadOutput.TARGET.remove ();
+		else
+			ThreadOutput.TARGET.set (out);
+	}
+
+	private PrintStream target ()
+	{
+		PrintStream out = ThreadOutput.TARGET.get ();
+		return out == null ? this.fallback : out;
+	}
+
+	@Override
+	public void write (int b) throws IOException
+	{
+		this.target ().write (b);
+	}
+
+	@Override
+	public void write (byte [] b, int off, int len) throws IOException
+	{
+		this.target ().write (b, off, len);
+	}
+
+	@Override
+	public void flush () throws IOException
+	{
+		this.target ().flush ();
+	}
+}
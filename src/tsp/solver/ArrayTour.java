@@ -0,0 +1,245 @@
+package tsp.solver;
+
+import tsp.evaluation.Tour;
+
+/**
+ * @author Alexandre Blansché
+ * Tournée stockée dans un tableau, avec la position de chaque "ville"
+ * Les inversions portent toujours sur le plus court des deux côtés du cycle
+ */
+public final class ArrayTour implements Tour
+{
+	private final int [] tour;
+	private final int [] position;
+	private final int length;
+	private int [] segment;
+	
+	/**
+	 * Constructeur
+	 * @param length Nombre de "villes"
+	 */
+	public ArrayTour (int length)
+	{
+		this.length = length;
+		this.tour = new int [length];
+		this.position = new int [length];
+		this.segment = new int [4];
+	}
+	
+	/**
+	 * Copie un chemin dans la tournée
+	 * @param path Liste ordonnée des "villes"
+	 */
+	public void load (int [] path)
+	{
+		for (int i = 0; i < this.length; i++)
+		{
+			this.tour [i] = path [i];
+			this.position [path [i]] = i;
+		}
+	}
+	
+	/**
+	 * Copie la tournée dans un chemin
+	 * @param path Tableau de destination
+	 */
+	public void store (int [] path)
+	{
+		System.arraycopy (this.tour, 0, path, 0, this.length);
+	}
+	
+	/**
+	 * @return Nombre de "villes"
+	 */
+	public int size ()
+	{
+		return this.length;
+	}
+	
+	/**
+	 * @param index Une position
+	 * @return La "ville" à cette position
+	 */
+	public int getCity (int index)
+	{
+		return this.tour [index];
+	}
+	
+	/**
+	 * @param city Une "ville"
+	 * @return Sa position dans la tournée
+	 */
+	public int getPosition (int city)
+	{
+		return this.position [city];
+	}
+	
+	/**
+	 * @param city Une "ville"
+	 * @return La "ville" suivante
+	 */
+	public int next (int city)
+	{
+		int index = this.position [city] + 1;
+		return this.tour [index == this.length ? 0 : index];
+	}
+	
+	/**
+	 * @param city Une "ville"
+	 * @return La "ville" précédente
+	 */
+	public int prev (int city)
+	{
+		int index = this.position [city] - 1;
+		return this.tour [index < 0 ? this.length - 1 : index];
+	}
+	
+	/**
+	 * @param a Une "ville"
+	 * @param b Une "ville"
+	 * @param c Une "ville"
+	 * @return Indique si b se trouve sur le chemin allant de a à c dans le sens de la tournée
+	 */
+	public boolean between (int a, int b, int c)
+	{
+		int pa = this.position [a];
+		int pb = this.position [b];
+		int pc = this.position [c];
+		if (pa <= pc)
+			return pa <= pb && pb <= pc;
+		return pb >= pa || pb <= pc;
+	}
+	
+	/**
+	 * Mouvement 2-opt : supprime les arêtes (a, b) et (c, d), ajoute (a, c) et (b, d)
+	 * b doit suivre a et d doit suivre c, dans un même sens de parcours (quelconque)
+	 * @param a Une "ville"
+	 * @param b Son voisin
+	 * @param c Une autre "ville"
+	 * @param d Son voisin
+	 */
+	public void twoOptMove (int a, int b, int c, int d)
+	{
+		if (this.next (a) == b)
+			this.reverse (this.position [b], this.position [c]);
+		else
+			this.reverse (this.position [a], this.position [d]);
+	}
+	
+	/**
+	 * Inverse la portion circulaire [from, to] (ou, de façon équivalente, son complémentaire s'il est plus court)
+	 * @param from Position de début
+	 * @param to Position de fin
+	 */
+	public void reverse (int from, int to)
+	{
+		int size = to - from;
+		if (size < 0)
+			size += this.length;
+		size++;
+		if (2 * size > this.length)
+		{
+			int tmp = to + 1;
+			to = from - 1;
+			from = tmp;
+			if (from == this.length)
+				from = 0;
+			if (to < 0)
+				to = this.length - 1;
+			size = this.length - size;
+		}
+		int [] tour = this.tour;
+		int [] position = this.position;
+		for (int swaps = size / 2; swaps > 0; swaps--)
+		{
+			int a = tour [from];
+			int b = tour [to];
+			tour [from] = b;
+			position [b] = from;
+			tour [to] = a;
+			position [a] = to;
+			if (++from == this.length)
+				from = 0;
+			if (--to < 0)
+				to = this.length - 1;
+		}
+	}
+	
+	/**
+	 * Or-opt : déplace le segment [first, last] entre u et v (v doit suivre u, tous deux hors du segment)
+	 * Les "villes" situées entre le segment et sa destination sont décalées par copies de blocs,
+	 * du côté le plus court
+	 * @param first Première "ville" du segment (dans le sens de la tournée)
+	 * @param last Dernière "ville" du segment
+	 * @param u "Ville" après laquelle le segment est inséré
+	 * @param v "Ville" qui suit u
+	 * @param reversed Indique si le segment est inséré à l'envers (u, last, ..., first, v)
+	 */
+	public void moveSegment (int first, int last, int u, int v, boolean reversed)
+	{
+		int n = this.length;
+		int start = this.position [first];
+		int end = this.position [last];
+		int size = end - start;
+		if (size < 0)
+			size += n;
+		size++;
+		if (this.segment.length < size)
+			this.segment = new int [size];
+		for (int i = 0, index = start; i < size; i++)
+		{
+			this.segment [reversed ? size - 1 - i : i] = this.tour [index];
+			if (++index == n)
+				index = 0;
+		}
+		int forward = this.position [u] - end;
+		if (forward < 0)
+			forward += n;
+		int backward = start - this.position [v];
+		if (backward < 0)
+			backward += n;
+		int target;
+		if (forward <= backward)
+		{
+			this.moveRange ((end + 1) % n, start, forward, true);
+			target = (start + forward) % n;
+		}
+		else
+		{
+			target = this.position [v];
+			this.moveRange (target, (target + size) % n, backward, false);
+		}
+		for (int i = 0, index = target; i < size; i++)
+		{
+			this.tour [index] = this.segment [i];
+			this.position [this.segment [i]] = index;
+			if (++index == n)
+				index = 0;
+		}
+	}
+	
+	private void moveRange (int from, int to, int count, boolean ascending)
+	{
+		int n = this.length;
+		if (count == 0)
+			return;
+		if (from + count <= n && to + count <= n)
+			System.arraycopy (this.tour, from, this.tour, to, count);
+		else if (ascending)
+		{
+			for (int i = 0; i < count; i++)
+				this.tour [(to + i) % n] = this.tour [(from + i) % n];
+		}
+		else
+		{
+			for (int i = count - 1; i >= 0; i--)
+				this.tour [(to + i) % n] = this.tour [(from + i) % n];
+		}
+		for (int i = 0, index = to; i < count; i++)
+		{
+			this.position [this.tour [index]] = index;
+			if (++index == n)
+				index = 0;
+		}
+	}
+}
@@ -0,0 +1,71 @@
+package tsp.solver;
+
+/**
+ * @author Alexandre Blansché
+ * File circulaire des "villes" à examiner par une recherche locale (bits "don't look") :
+ * une "ville" n'y figure qu'une fois, si bien que la file ne dépasse jamais n éléments
+ */
+final class CityQueue
+{
+	private final int [] queue;
+	private final boolean [] queued;
+	private int head;
+	private int size;
+
+	/**
+	 * Constructeur
+	 * @param length Nombre de "villes"
+	 */
+	CityQueue (int length)
+	{
+		this.queue = new int [length];
+		this.queued = new boolean [length];
+	}
+
+	/**
+	 * @return Indique si la file est vide
+	 */
+	boolean isEmpty ()
+	{
+		return this.size == 0;
+	}
+
+	/**
+	 * Ajoute une "ville" en fin de file, si elle n'y est pas déjà
+	 * @param city La "ville"
+	 */
+	void push (int city)
+	{
+		if (!this.queued [city])
+		{
+			this.queued [city] = true;
+			int index = this.head + this.size;
+			if (index >= this.queue.length)
+				index -= this.queue.length;
+			this.queue [index] = city;
+			this.size++;
+		}
+	}
+
+	/**
+	 * @return La "ville" en tête de file, retirée de la file
+	 */
+	int pop ()
+	{
+		int city = this.queue [this.head];
+		if (++this.head == this.queue.length)
+			this.head = 0;
+		this.size--;
+		this.queued [city] = false;
+		return city;
+	}
+
+	/**
+	 * Vide la file (recherche interrompue avant l'optimum local)
+	 */
+	void clear ()
+	{
+		while (this.size > 0)
+			this.pop ();
+	}
+}
@@ -0,0 +1,316 @@
+package tsp.solver;
+
+import java.util.Random;
+
+import tsp.evaluation.Budget;
+import tsp.evaluation.Evaluation;
+import tsp.evaluation.NeighbourLists;
+import tsp.evaluation.Path;
+import tsp.evaluation.Problem;
+import tsp.evaluation.Tour;
+import tsp.evaluation.TwoLevelList;
+
+/**
+ * @author Alexandre Blansché
+ * Recherche locale de type Lin-Kernighan : suites de mouvements 2-opt séquentiels (k-opt à profondeur variable),
+ * guidées par les listes de plus proches voisins, alternées avec Or-opt jusqu'à un optimum local
+ * Les premiers niveaux explorent plusieurs candidats (retour arrière), les suivants seulement le meilleur ;
+ * la suite est ramenée à son meilleur préfixe
+ * La version chaînée perturbe l'optimum par des "double bridges" locaux jusqu'à une échéance
+ * Au-delà de TWO_LEVEL_THRESHOLD "villes", la tournée est une liste à deux niveaux (inversions en O(√n))
+ * Une instance n'est pas partagée entre threads
+ */
+public final class LinKernighan
+{
+	/**
+	 * Nombre de voisins par défaut
+	 */
+	public static final int DEFAULT_NEIGHBOURS = 8;
+	/**
+	 * Nombre de "villes" à partir duquel la tournée est stockée dans une liste à deux niveaux
+	 */
+	public static final int TWO_LEVEL_THRESHOLD = 1000;
+	private static final double EPSILON = 1e-9;
+	private static final int MAX_DEPTH = 10;
+	private static final int [] BREADTH = {5, 3};
+	private static final int MAX_BREADTH = 5;
+	private static final int KICK_SEGMENT = 50;
+
+	private final Problem problem;
+	private final int [][] neighbours;
+	private final Tour tour;
+	private final OrOpt orOpt;
+	private final Random random;
+	private final CityQueue queue;
+	private Budget budget = Budget.UNLIMITED;
+	private final int [] moves;
+	private int nbMoves;
+	private final int [] candidates;
+	private final double [] scores;
+
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 */
+	public LinKernighan (Problem problem)
+	{
+		this (problem, LinKernighan.DEFAULT_NEIGHBOURS, new Random ());
+	}
+
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 * @param k Nombre de voisins candidats par "ville"
+	 * @param random Générateur utilisé pour les perturbations
+	 */
+	public LinKernighan (Problem problem, int k, Random random)
+	{
+		int length = problem.getLength ();
+		this.problem = problem;
+		NeighbourLists lists = problem.getNeighbourLists (k);
+		this.neighbours = new int [length][];
+		for (int i = 0; i < length; i++)
+			this.neighbours [i] = lists.get (i);
+		this.tour = length >= LinKernighan.TWO_LEVEL_THRESHOLD ? new TwoLevelList (length) : new ArrayTour (length);
+		this.orOpt = new OrOpt (problem, k);
+		this.random = random;
+		this.queue = new CityQueue (length);
+		this.moves = new int [4 * LinKernighan.MAX_DEPTH];
+		this.candidates = new int [LinKernighan.MAX_DEPTH * LinKernighan.MAX_BREADTH];
+		this.scores = new double [LinKernighan.MAX_DEPTH * LinKernighan.MAX_BREADTH];
+	}
+
+	/**
+	 * Budget partagé avec l'Or-opt interne : à son épuisement, la descente s'arrête et optimize ne lance plus de perturbation
+	 * @param budget Le budget de temps de l'exécution
+	 */
+	public void setBudget (Budget budget)
+	{
+		this.budget = budget;
+		this.orOpt.setBudget (budget);
+	}
+
+	/**
+	 * Optimise un chemin sur place jusqu'à un optimum local (Lin-Kernighan et Or-opt)
+	 * @param path Le chemin
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (Path path)
+	{
+		return this.optimize (path.getPath ());
+	}
+
+	/**
+	 * Optimise un chemin sur place jusqu'à un optimum local (Lin-Kernighan et Or-opt)
+	 * @param path Liste ordonnée des "villes"
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (int [] path)
+	{
+		if (path.length < 5)
+			return 0;
+		double gain = 0;
+		while (true)
+		{
+			this.tour.load (path);
+			for (int city: path)
+				this.queue.push (city);
+			gain += this.run ();
+			this.tour.store (path);
+			double improvement = this.orOpt.optimize (path);
+			if (improvement <= 0)
+				return gain;
+			gain += improvement;
+		}
+	}
+
+	/**
+	 * Lin-Kernighan chaîné : optimum local, puis perturbations ("double bridge" sur des segments voisins)
+	 * suivies d'une réoptimisation autour des "villes" touchées ; une perturbation n'est conservée
+	 * que si elle n'allonge pas le chemin
+	 * Chaque amélioration de la meilleure solution connue est soumise à l'évaluation
+	 * @param path Le chemin, modifié sur place
+	 * @param deadline Échéance (System.nanoTime ())
+	 * @param evaluation Évaluation à laquelle soumettre les améliorations (peut être null)
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (Path path, long deadline, Evaluation evaluation)
+	{
+		int [] cities = path.getPath ();
+		double gain = this.optimize (cities);
+		double length = 0;
+		for (int i = 0; i < cities.length; i++)
+			length += this.problem.distance (cities [i], cities [i == 0 ? cities.length - 1 : i - 1]);
+		if (evaluation != null && length < evaluation.getBestEvaluation ())
+			length = evaluation.evaluate (path);
+		if (cities.length < 8)
+			return gain;
+		this.tour.load (cities);
+		while (System.nanoTime () < deadline && !Thread.currentThread ().isInterrupted () && !this.budget.expired ())
+		{
+			double delta = this.kick () - this.run ();
+			if (delta <= LinKernighan.EPSILON)
+			{
+				this.tour.store (cities);
+				if (delta < -LinKernighan.EPSILON)
+				{
+					length += delta;
+					gain -= delta;
+					if (evaluation != null && length < evaluation.getBestEvaluation ())
+						length = evaluation.evaluate (path);
+				}
+			}
+			else
+				this.tour.load (cities);
+		}
+		return gain;
+	}
+
+	/**
+	 * Segment-swap (double bridge) : les segments consécutifs B et C sont échangés (A B C D devient A C B D)
+	 * @return La variation de la distance parcourue
+	 */
+	private double kick ()
+	{
+		Problem problem = this.problem;
+		Tour tour = this.tour;
+		int n = tour.size ();
+		int max = Math.min (LinKernighan.KICK_SEGMENT, n / 4);
+		int l1 = 1 + this.random.nextInt (max);
+		int l2 = 1 + this.random.nextInt (max);
+		int b0 = this.random.nextInt (n);
+		int a = tour.prev (b0);
+		int b1 = b0;
+		for (int i = 1; i < l1; i++)
+			b1 = tour.next (b1);
+		int c0 = tour.next (b1);
+		int c1 = c0;
+		for (int i = 1; i < l2; i++)
+			c1 = tour.next (c1);
+		int d = tour.next (c1);
+		double delta = problem.distance (a, c0) + problem.distance (c1, b0) + problem.distance (b1, d)
+				- problem.distance (a, b0) - problem.distance (b1, c0) - problem.distance (c1, d);
+		tour.moveSegment (b0, b1, c1, d, false);
+		this.queue.push (a);
+		this.queue.push (b0);
+		this.queue.push (b1);
+		this.queue.push (c0);
+		this.queue.push (c1);
+		this.queue.push (d);
+		return delta;
+	}
+
+	private double run ()
+	{
+		double gain = 0;
+		while (!this.queue.isEmpty () && !this.budget.expired ())
+		{
+			int t1 = this.queue.pop ();
+			double improvement;
+			while ((improvement = this.improve (t1)) > 0)
+				gain += improvement;
+		}
+		this.queue.clear ();
+		return gain;
+	}
+
+	private double improve (int t1)
+	{
+		Tour tour = this.tour;
+		for (int direction = 0; direction < 2; direction++)
+		{
+			int t2 = direction == 0 ? tour.next (t1) : tour.prev (t1);
+			this.nbMoves = 0;
+			double gain = this.step (t1, t2, this.problem.distance (t1, t2), 0, LinKernighan.EPSILON);
+			if (gain > 0)
+			{
+				for (int i = 0; i < 4 * this.nbMoves; i++)
+					this.queue.push (this.moves [i]);
+				return gain;
+			}
+		}
+		return 0;
+	}
+
+	/**
+	 * Un niveau de la suite de mouvements : l'arête (t1, t2) vient d'être supprimée,
+	 * on ajoute (t2, t3) et on supprime (t3, t4), puis l'arête de fermeture (t4, t1) est remise en jeu
+	 * @param t1 Origine de la suite
+	 * @param t2 Extrémité libre
+	 * @param g Gain partiel (arêtes supprimées moins arêtes ajoutées, fermeture non comprise)
+	 * @param depth Profondeur
+	 * @param floor Meilleur gain déjà atteint par un préfixe de la suite
+	 * @return Le gain de la suite conservée (supérieur à floor), ou 0 si la tournée est restée inchangée
+	 */
+	private double step (int t1, int t2, double g, int depth, double floor)
+	{
+		Problem problem = this.problem;
+		Tour tour = this.tour;
+		boolean forward = tour.next (t1) == t2;
+		int breadth = depth < LinKernighan.BREADTH.length ? LinKernighan.BREADTH [depth] : 1;
+		int base = depth * LinKernighan.MAX_BREADTH;
+		int count = 0;
+		int succ = tour.next (t2);
+		int pred = tour.prev (t2);
+		for (int t3: this.neighbours [t2])
+		{
+			double g1 = g - problem.distance (t2, t3);
+			if (g1 <= LinKernighan.EPSILON)
+				break;
+			if (t3 == succ || t3 == pred)
+				continue;
+			int t4 = forward ? tour.prev (t3) : tour.next (t3);
+			if (this.added (t3, t4))
+				continue;
+			double score = problem.distance (t3, t4) - problem.distance (t2, t3);
+			if (count == breadth && score <= this.scores [base + breadth - 1])
+				continue;
+			int i = count < breadth ? count++ : breadth - 1;
+			while (i > 0 && this.scores [base + i - 1] < score)
+			{
+				this.scores [base + i] = this.scores [base + i - 1];
+				this.candidates [base + i] = this.candidates [base + i - 1];
+				i--;
+			}
+			this.scores [base + i] = score;
+			this.candidates [base + i] = t3;
+		}
+		for (int i = 0; i < count; i++)
+		{
+			int t3 = this.candidates [base + i];
+			// t4 est défini par rapport au sens t1 -> t2, inchangé par les mouvements annulés
+			int t4 = tour.next (t1) == t2 ? tour.prev (t3) : tour.next (t3);
+			tour.twoOptMove (t1, t2, t4, t3);
+			int move = 4 * this.nbMoves++;
+			this.moves [move] = t1;
+			this.moves [move + 1] = t2;
+			this.moves [move + 2] = t4;
+			this.moves [move + 3] = t3;
+			double gain = g - problem.distance (t2, t3) + problem.distance (t3, t4);
+			double close = gain - problem.distance (t4, t1);
+			double deeper = depth + 1 < LinKernighan.MAX_DEPTH ? this.step (t1, t4, gain, depth + 1, Math.max (floor, close)) : 0;
+			if (deeper > 0)
+				return deeper;
+			if (close > floor)
+				return close;
+			this.nbMoves--;
+			tour.twoOptMove (t1, t4, t2, t3);
+		}
+		return 0;
+	}
+
+	/**
+	 * @return Indique si l'arête (u, v) a été ajoutée par la suite en cours (elle ne peut plus être supprimée)
+	 */
+	private boolean added (int u, int v)
+	{
+		for (int i = 0; i < this.nbMoves; i++)
+		{
+			int a = this.moves [4 * i + 1];
+			int b = this.moves [4 * i + 3];
+			if ((a == u && b == v) || (a == v && b == u))
+				return true;
+		}
+		return false;
+	}
+}
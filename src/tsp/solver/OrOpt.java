@@ -0,0 +1,182 @@
+package tsp.solver;
+
+import tsp.evaluation.Budget;
+import tsp.evaluation.NeighbourLists;
+import tsp.evaluation.Path;
+import tsp.evaluation.Problem;
+
+/**
+ * @author Alexandre Blansché
+ * Recherche locale Or-opt : déplacement de segments de 1 à 3 "villes", dans les deux sens,
+ * à côté d'un de leurs plus proches voisins
+ * Même gestion des "villes" à examiner que TwoOpt (file et bits "don't look")
+ * Une instance n'est pas partagée entre threads
+ */
+public final class OrOpt
+{
+	/**
+	 * Longueur maximale des segments déplacés
+	 */
+	public static final int MAX_SEGMENT = 3;
+	private static final double EPSILON = 1e-9;
+	
+	private final Problem problem;
+	private final int [][] neighbours;
+	private final ArrayTour tour;
+	private final CityQueue queue;
+	private final int [] segment;
+	private Budget budget = Budget.UNLIMITED;
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 */
+	public OrOpt (Problem problem)
+	{
+		this (problem, TwoOpt.DEFAULT_NEIGHBOURS);
+	}
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 * @param k Nombre de voisins candidats par "ville"
+	 */
+	public OrOpt (Problem problem, int k)
+	{
+		int length = problem.getLength ();
+		this.problem = problem;
+		NeighbourLists lists = problem.getNeighbourLists (k);
+		this.neighbours = new int [length][];
+		for (int i = 0; i < length; i++)
+			this.neighbours [i] = lists.get (i);
+		this.tour = new ArrayTour (length);
+		this.queue = new CityQueue (length);
+		this.segment = new int [OrOpt.MAX_SEGMENT];
+	}
+	
+	/**
+	 * Budget consulté entre deux villes de la file : à son épuisement, les segments déjà déplacés le restent
+	 * @param budget Le budget de temps de l'exécution
+	 */
+	public void setBudget (Budget budget)
+	{
+		this.budget = budget;
+	}
+	
+	/**
+	 * Optimise un chemin sur place
+	 * @param path Le chemin
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (Path path)
+	{
+		return this.optimize (path.getPath ());
+	}
+	
+	/**
+	 * Optimise un chemin sur place
+	 * @param path Liste ordonnée des "villes"
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (int [] path)
+	{
+		if (path.length < OrOpt.MAX_SEGMENT + 3)
+			return 0;
+		this.tour.load (path);
+		for (int city: path)
+			this.queue.push (city);
+		double gain = 0;
+		while (!this.queue.isEmpty () && !this.budget.expired ())
+		{
+			int a = this.queue.pop ();
+			double improvement;
+			while ((improvement = this.improve (a)) > 0)
+				gain += improvement;
+		}
+		this.queue.clear ();
+		this.tour.store (path);
+		return gain;
+	}
+	
+	private double improve (int a)
+	{
+		ArrayTour tour = this.tour;
+		for (int length = 1; length <= OrOpt.MAX_SEGMENT; length++)
+		{
+			int last = a;
+			for (int i = 1; i < length; i++)
+				last = tour.next (last);
+			double gain = this.improve (a, last, length);
+			if (gain > 0)
+				return gain;
+			if (length > 1)
+			{
+				int first = a;
+				for (int i = 1; i < length; i++)
+					first = tour.prev (first);
+				gain = this.improve (first, a, length);
+				if (gain > 0)
+					return gain;
+			}
+		}
+		return 0;
+	}
+	
+	private double improve (int first, int last, int length)
+	{
+		Problem problem = this.problem;
+		ArrayTour tour = this.tour;
+		int p = tour.prev (first);
+		int next = tour.next (last);
+		double removeGain = problem.distance (p, first) + problem.distance (last, next) - problem.distance (p, next);
+		if (removeGain <= OrOpt.EPSILON)
+			return 0;
+		this.segment [0] = first;
+		for (int i = 1; i < length; i++)
+			this.segment [i] = tour.next (this.segment [i - 1]);
+		for (int end = 0; end < 2; end++)
+		{
+			int e = end == 0 ? first : last;
+			for (int c: this.neighbours [e])
+			{
+				double ec = problem.distance (e, c);
+				if (ec >= removeGain)
+					break;
+				if (this.inSegment (c, length))
+					continue;
+				for (int side = 0; side < 2; side++)
+				{
+					int u = side == 0 ? c : tour.prev (c);
+					int v = side == 0 ? tour.next (c) : c;
+					if (this.inSegment (u, length) || this.inSegment (v, length))
+						continue;
+					// e est placé contre c, l'autre extrémité contre l'autre ville de l'arête
+					int other = e == first ? last : first;
+					double added = ec + problem.distance (other, side == 0 ? v : u) - problem.distance (u, v);
+					double delta = added - removeGain;
+					if (delta < -OrOpt.EPSILON)
+					{
+						boolean reversed = (side == 0) == (e == last);
+						tour.moveSegment (first, last, u, v, reversed);
+						this.queue.push (p);
+						this.queue.push (next);
+						this.queue.push (u);
+						this.queue.push (v);
+						this.queue.push (first);
+						this.queue.push (last);
+						return -delta;
+					}
+				}
+			}
+		}
+		return 0;
+	}
+	
+	private boolean inSegment (int city, int length)
+	{
+		for (int i = 0; i < length; i++)
+			if (this.segment [i] == city)
+				return true;
+		return false;
+	}
+}
@@ -0,0 +1,129 @@
+package tsp.solver;
+
+import tsp.evaluation.Budget;
+import tsp.evaluation.NeighbourLists;
+import tsp.evaluation.Path;
+import tsp.evaluation.Problem;
+
+/**
+ * @author Alexandre Blansché
+ * Recherche locale 2-opt restreinte aux listes de plus proches voisins
+ * Les "villes" à examiner sont gérées par une file (bits "don't look") : seules les extrémités
+ * des arêtes modifiées sont réexaminées
+ * Une instance n'est pas partagée entre threads
+ */
+public final class TwoOpt
+{
+	/**
+	 * Nombre de voisins par défaut
+	 */
+	public static final int DEFAULT_NEIGHBOURS = 10;
+	private static final double EPSILON = 1e-9;
+	
+	private final Problem problem;
+	private final int [][] neighbours;
+	private final ArrayTour tour;
+	private final CityQueue queue;
+	private Budget budget = Budget.UNLIMITED;
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 */
+	public TwoOpt (Problem problem)
+	{
+		this (problem, TwoOpt.DEFAULT_NEIGHBOURS);
+	}
+	
+	/**
+	 * Constructeur
+	 * @param problem Le problème
+	 * @param k Nombre de voisins candidats par "ville"
+	 */
+	public TwoOpt (Problem problem, int k)
+	{
+		int length = problem.getLength ();
+		this.problem = problem;
+		NeighbourLists lists = problem.getNeighbourLists (k);
+		this.neighbours = new int [length][];
+		for (int i = 0; i < length; i++)
+			this.neighbours [i] = lists.get (i);
+		this.tour = new ArrayTour (length);
+		this.queue = new CityQueue (length);
+	}
+	
+	/**
+	 * Budget consulté entre deux villes de la file : à son épuisement, la recherche rend le chemin tel quel
+	 * @param budget Le budget de temps de l'exécution
+	 */
+	public void setBudget (Budget budget)
+	{
+		this.budget = budget;
+	}
+	
+	/**
+	 * Optimise un chemin sur place
+	 * @param path Le chemin
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (Path path)
+	{
+		return this.optimize (path.getPath ());
+	}
+	
+	/**
+	 * Optimise un chemin sur place
+	 * @param path Liste ordonnée des "villes"
+	 * @return Le gain obtenu (diminution de la distance parcourue)
+	 */
+	public double optimize (int [] path)
+	{
+		if (path.length < 5)
+			return 0;
+		this.tour.load (path);
+		for (int city: path)
+			this.queue.push (city);
+		double gain = 0;
+		while (!this.queue.isEmpty () && !this.budget.expired ())
+		{
+			int a = this.queue.pop ();
+			double improvement;
+			while ((improvement = this.improve (a)) > 0)
+				gain += improvement;
+		}
+		this.queue.clear ();
+		this.tour.store (path);
+		return gain;
+	}
+	
+	private double improve (int a)
+	{
+		Problem problem = this.problem;
+		ArrayTour tour = this.tour;
+		for (int direction = 0; direction < 2; direction++)
+		{
+			boolean forward = direction == 0;
+			int b = forward ? tour.next (a) : tour.prev (a);
+			double ab = problem.distance (a, b);
+			for (int c: this.neighbours [a])
+			{
+				double ac = problem.distance (a, c);
+				if (ac >= ab)
+					break;
+				int d = forward ? tour.next (c) : tour.prev (c);
+				if (c == b || d == a)
+					continue;
+				double delta = ac + problem.distance (b, d) - ab - problem.distance (c, d);
+				if (delta < -TwoOpt.EPSILON)
+				{
+					tour.twoOptMove (a, b, c, d);
+					this.queue.push (b);
+					this.queue.push (c);
+					this.queue.push (d);
+					return -delta;
+				}
+			}
+		}
+		return 0;
+	}
+}